@@ -0,0 +1,77 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das operações de saldo do Credito. adicionarSaldo inclui o
+ * cálculo da validade do lote, que no mesmo dia é somado ao lote mais
+ * novo. removerSaldo consome os lotes
+ * do mais antigo para o mais novo. O método adicionarSaldoDouble reproduz
+ * a soma em double usada antes do saldo em centavos, servindo de base de
+ * comparação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditoBenchmark {
+
+    @State(Scope.Thread)
+    public static class CreditoPorThread {
+        Credito credito;
+        double saldoDouble;
+
+        @Setup
+        public void setup() {
+            credito = new Credito();
+            credito.adicionarSaldo(1_000_000 * Dinheiro.CENTAVOS_POR_UNIDADE);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CreditoCompartilhado {
+        Credito credito;
+
+        @Setup
+        public void setup() {
+            credito = new Credito();
+            credito.adicionarSaldo(1_000_000 * Dinheiro.CENTAVOS_POR_UNIDADE);
+        }
+    }
+
+    @Benchmark
+    public void adicionarSaldo(CreditoPorThread estado) {
+        estado.credito.adicionarSaldo(1050);
+    }
+
+    @Benchmark
+    public boolean removerSaldo(CreditoPorThread estado) {
+        boolean removido = estado.credito.tentarRemoverSaldo(1050);
+        estado.credito.adicionarSaldo(1050);
+        return removido;
+    }
+
+    @Benchmark
+    public double adicionarSaldoDouble(CreditoPorThread estado) {
+        estado.saldoDouble += 10.50;
+        return estado.saldoDouble;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void adicionarSaldoConcorrente(CreditoCompartilhado estado) {
+        estado.credito.adicionarSaldo(1050);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean removerSaldoConcorrente(CreditoCompartilhado estado) {
+        boolean removido = estado.credito.tentarRemoverSaldo(1050);
+        estado.credito.adicionarSaldo(1050);
+        return removido;
+    }
+
+}
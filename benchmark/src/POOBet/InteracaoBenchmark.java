@@ -0,0 +1,44 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do caminho interativo de uma aposta (Jogador.criarAposta),
+ * conduzido por uma InteracaoRoteiro sem saída em vez das janelas do
+ * Swing. Cada aposta lê o tipo do palpite, a cor e as fichas e é sorteada
+ * e liquidada; o jogador é recriado a cada iteração para que o histórico
+ * não cresça sem limite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InteracaoBenchmark {
+
+    private static final List<String> ROTEIRO = List.of("Cor", "Vermelho", "1", "Não");
+
+    @State(Scope.Thread)
+    public static class JogadorPorThread {
+        Jogador jogador;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            jogador = new Jogador("Bench", "Mark", "bench", "000.000.000-00", "Brasileiro", Date.from(Instant.now()));
+            jogador.adicionarFichas(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @Benchmark
+    public int criarAposta(JogadorPorThread estado) {
+        estado.jogador.setInteracao(new InteracaoRoteiro(ROTEIRO, null));
+        estado.jogador.criarAposta();
+        return estado.jogador.getQtdFicha();
+    }
+
+}
@@ -0,0 +1,74 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das operações de fichas do Jogador (removerFichas e
+ * adicionarFichas). Os métodos com sufixo "Concorrente" usam um único
+ * jogador compartilhado por todas as threads, medindo a contenção
+ * sobre o contador de fichas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JogadorBenchmark {
+
+    @State(Scope.Thread)
+    public static class JogadorPorThread {
+        Jogador jogador;
+
+        @Setup
+        public void setup() {
+            jogador = novoJogador();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class JogadorCompartilhado {
+        Jogador jogador;
+
+        @Setup
+        public void setup() {
+            jogador = novoJogador();
+        }
+    }
+
+    @Benchmark
+    public void adicionarFichas(JogadorPorThread estado) {
+        estado.jogador.adicionarFichas(1);
+    }
+
+    @Benchmark
+    public boolean removerEAdicionarFichas(JogadorPorThread estado) {
+        boolean removido = estado.jogador.removerFichas(1);
+        estado.jogador.adicionarFichas(1);
+        return removido;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void adicionarFichasConcorrente(JogadorCompartilhado estado) {
+        estado.jogador.adicionarFichas(1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean removerEAdicionarFichasConcorrente(JogadorCompartilhado estado) {
+        boolean removido = estado.jogador.removerFichas(1);
+        estado.jogador.adicionarFichas(1);
+        return removido;
+    }
+
+    private static Jogador novoJogador() {
+        Jogador jogador = new Jogador("Bench", "Mark", "bench", "000.000.000-00", "Brasileiro", Date.from(Instant.now()));
+        jogador.adicionarFichas(1_000_000);
+        return jogador;
+    }
+
+}
@@ -0,0 +1,50 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do cálculo de prêmio de um palpite (Jogo.calcularPremio) e da
+ * liquidação de uma aposta com palpites de vários tipos (MotorApostas.liquidar).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JogoBenchmark {
+
+    private Jogo jogoVerde;
+    private Jogo jogoVermelho;
+    private List<Jogo> jogos;
+    private int numero;
+
+    @Setup
+    public void setup() {
+        jogoVerde = new Jogo(Cor.VERDE, 10);
+        jogoVermelho = new Jogo(Cor.VERMELHO, 10);
+        jogos = Arrays.asList(jogoVermelho, new Jogo(TipoAposta.NUMERO, 17, 2), new Jogo(TipoAposta.DIVISAO, TipoAposta.DIVISAO.procurarAlvo(17, 20), 2),
+                new Jogo(TipoAposta.QUADRA, TipoAposta.QUADRA.procurarAlvo(13, 14, 16, 17), 2), new Jogo(TipoAposta.DUZIA, 1, 5), new Jogo(TipoAposta.PAR_IMPAR, 1, 5));
+        numero = 17;
+    }
+
+    @Benchmark
+    public int calcularPremioVerde() {
+        return jogoVerde.calcularPremio();
+    }
+
+    @Benchmark
+    public int calcularPremioVermelho() {
+        return jogoVermelho.calcularPremio();
+    }
+
+    @Benchmark
+    public ResultadoAposta liquidarAposta() {
+        return MotorApostas.liquidar(jogos, numero);
+    }
+
+}
@@ -0,0 +1,75 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark da liquidação de uma rodada da MesaRoleta com vários jogadores,
+ * cada um com uma aposta em uma cor, com um único sorteio. Com comDiario, os
+ * jogadores registram as movimentações em um Diario, que a mesa sincroniza
+ * uma única vez por rodada.
+ * <p>
+ * Cada medição usa uma mesa e jogadores novos, com as apostas já feitas na
+ * preparação, para que o histórico de apostas não cresça entre as rodadas
+ * medidas.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class MesaRoletaBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int qtdJogadores;
+
+    @Param({"false", "true"})
+    private boolean comDiario;
+
+    private MesaRoleta mesa;
+    private Jogador[] jogadores;
+    private Path diretorio;
+    private Diario diario;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        mesa = new MesaRoleta(Long.MAX_VALUE, qtdJogadores);
+        jogadores = new Jogador[qtdJogadores];
+        if (comDiario) {
+            diretorio = Files.createTempDirectory("mesa-roleta");
+            diario = new Diario(diretorio, 16 * 1024 * 1024);
+        }
+        for (int i = 0; i < qtdJogadores; i++) {
+            jogadores[i] = new Jogador("Bench", "Mark", "bench", "000.000.000-00", "Brasileiro", Date.from(Instant.now()));
+            jogadores[i].adicionarFichas(1_000);
+            jogadores[i].setDiario(diario);
+            mesa.apostar(jogadores[i], Cor.doIndice(i % Cor.getQtdCores()), 10);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (diario != null) {
+            diario.close();
+            diario = null;
+            try (Stream<Path> arquivos = Files.walk(diretorio)) {
+                arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public ResultadoRodada fecharRodada() {
+        return mesa.fecharRodada();
+    }
+
+}
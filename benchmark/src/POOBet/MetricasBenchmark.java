@@ -0,0 +1,51 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do custo de registrar uma latência no HistogramaLatencia, com
+ * uma thread e com todas as threads medindo a mesma operação, para conferir
+ * que as métricas podem ficar sempre ligadas. O método nanoTime mede apenas
+ * a leitura do relógio, que é feita duas vezes por operação medida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Histograma {
+        HistogramaLatencia histograma;
+
+        @Setup
+        public void setup() {
+            histograma = new HistogramaLatencia("benchmark");
+        }
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void registrar(Histograma estado) {
+        estado.histograma.registrarDesde(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void registrarConcorrente(Histograma estado) {
+        estado.histograma.registrarDesde(System.nanoTime());
+    }
+
+    @Benchmark
+    public long percentil(Histograma estado) {
+        return estado.histograma.getPercentil(99);
+    }
+
+}
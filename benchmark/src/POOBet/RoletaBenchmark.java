@@ -0,0 +1,75 @@
+package POOBet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do sorteio e da verificação de cor da roleta.
+ * Compara a tabela pré-calculada de Aposta.verificarCor e o sorteio
+ * com ThreadLocalRandom com a implementação anterior, que percorria
+ * as listas de números com streams e criava um Random a cada sorteio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoletaBenchmark {
+
+    private static final int[] numerosVermelhos = {1, 3, 5, 7, 9, 12, 14, 16, 18, 19, 21, 23, 25, 27, 30, 32, 34, 36};
+    private static final int[] numerosPretos = { 2, 4, 6, 8, 10, 11, 13, 15, 17, 20, 22, 24, 26, 28, 29, 31, 33, 35};
+
+    private int numero;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        numero = new Random().nextInt(37);
+    }
+
+    @Benchmark
+    public Cor verificarCorTabela() {
+        return Aposta.verificarCor(numero);
+    }
+
+    @Benchmark
+    public String verificarCorStream() {
+        return verificarCorAnterior(numero);
+    }
+
+    @Benchmark
+    public Cor sortearCorTabela() {
+        return Aposta.verificarCor(MotorApostas.sortearNumero());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Cor sortearCorTabelaConcorrente() {
+        return Aposta.verificarCor(MotorApostas.sortearNumero());
+    }
+
+    @Benchmark
+    public String sortearCorAnterior() {
+        Random rd = new Random();
+        int posicaoSorteada = rd.nextInt(0, 37);
+        return verificarCorAnterior(Aposta.getNumeroNaPosicao(posicaoSorteada));
+    }
+
+    /**
+     * Implementação de Aposta.verificarCor anterior à tabela pré-calculada,
+     * mantida aqui apenas como base de comparação.
+     */
+    private static String verificarCorAnterior(int numero) {
+        if (Arrays.stream(numerosVermelhos).anyMatch(n -> n == numero)) {
+            return "Vermelho";
+        } else if (Arrays.stream(numerosPretos).anyMatch(n -> n == numero)) {
+            return "Preto";
+        } else {
+            return "Verde";
+        }
+    }
+
+}
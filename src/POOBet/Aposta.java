@@ -13,158 +13,416 @@ public class Aposta {
 
     private int idAposta;
     private int premioTotal;
-    private HashMap<String, Jogo> listaJogos;
+    private ArrayList<Jogo> listaJogos;
 
-    private String corSorteada;
-    private static int proximoIdAposta = 1;
-    private static int[] numerosVermelhos = {1, 3, 5, 7, 9, 12, 14, 16, 18, 19, 21, 23, 25, 27, 30, 32, 34, 36};
-    private static int[] numerosPretos = { 2, 4, 6, 8, 10, 11, 13, 15, 17, 20, 22, 24, 26, 28, 29, 31, 33, 35};
+    private int numeroSorteado;
+    private Cor corSorteada;
+    private boolean ganhou;
+    private static GeradorIds geradorIds = GeradorIds.emMemoria();
     private static int[] roleta = {0, 32, 15, 19, 4, 21, 2, 25, 17, 34, 6, 27, 13, 36, 11, 30, 8, 23, 10, 5, 24, 16, 33, 1, 20, 14, 31, 9, 22, 18, 29, 7, 28, 12, 35, 3, 26};
 
+    // declarado depois da roleta, que o controle consulta ao ser criado.
+    private static ControleExposicao exposicao = new ControleExposicao();
+
     /**
      * Método construtor da classe Aposta, que instancia
      * seus principais valores e faz a criação dos jogos
-     * que compõem a aposta.
+     * que compõem a aposta. As perguntas e mensagens usam
+     * a Interacao do jogador.
      * @param jogador o usuário que está realizando a ação.
      */
     public Aposta (Jogador jogador) {
 
+        Interacao interacao = jogador.getInteracao();
+
         // define o ID da Aposta
-        this.idAposta = proximoIdAposta;
-        proximoIdAposta++;
+        this.idAposta = geradorIds.proximoId();
 
         // inicializa a lista de jogos associada a aposta.
-        this.listaJogos = new HashMap<String, Jogo>();
+        this.listaJogos = new ArrayList<Jogo>();
 
         // menu de opções para o jogador criar palpites (Jogo).
         int opcaoSelecionada = 0;
         
-        do {
-            // se o jogador já tiver o primeiro palpite incluído, perguntar se deseja adicionar mais.
-            if (this.listaJogos.size() > 0) {
-                String[] opcoes = {"Sim", "Não"};
-                opcaoSelecionada = InOut.leOpcoes("Nova Aposta", "Você deseja incluir um novo palpite?", opcoes);
-                if (opcaoSelecionada == 0) {
+        try {
+            do {
+                // se o jogador já tiver o primeiro palpite incluído, perguntar se deseja adicionar mais.
+                if (this.listaJogos.size() > 0) {
+                    String[] opcoes = {"Sim", "Não"};
+                    opcaoSelecionada = interacao.leOpcoes("Nova Aposta", "Você deseja incluir um novo palpite?", opcoes);
+                    if (opcaoSelecionada == 0) {
+                        criarJogo(jogador);
+                    }
+                } else {
                     criarJogo(jogador);
                 }
-            } else {
-                criarJogo(jogador);
+            } while (opcaoSelecionada == 0 && jogador.getQtdFicha() > 0);
+        } catch (RuntimeException e) {
+            // a leitura falhou no meio da aposta (por exemplo, o fim de um roteiro): devolve as fichas dos palpites já feitos.
+            jogador.adicionarFichas(getTotalFichas());
+            liberarExposicao();
+            throw e;
+        }
+
+        publicarApostaRealizada(jogador);
+
+        // avisa ao jogador que o sorteio está sendo realizado.
+        interacao.MsgDeAviso("Aposta","O sorteio está acontecendo agora!");
+
+        // realiza o sorteio e a liquidação da aposta.
+        setResultado(MotorApostas.apostar(jogador, this.listaJogos));
+        liberarExposicao();
+        anunciarGanhador(interacao);
+
+    }
+
+    /**
+     * Método construtor da classe Aposta sem interação com o usuário.
+     * Os palpites são recebidos como dados, as fichas são removidas do
+     * jogador e a aposta é sorteada e liquidada imediatamente.
+     * @param jogador  o usuário que está realizando a ação.
+     * @param palpites os palpites (Jogo) da aposta.
+     * @throws IllegalArgumentException se não houver palpites ou se o jogador não
+     *                                  possuir fichas suficientes.
+     * @throws IllegalStateException    se a aposta ultrapassar o limite de exposição da casa.
+     */
+    public Aposta (Jogador jogador, List<Jogo> palpites) {
+
+        long inicio = System.nanoTime();
+
+        // valida os palpites antes de remover qualquer ficha. Cada Jogo já tem fichas positivas;
+        // a soma é feita em long para que muitos palpites grandes não deem a volta no int.
+        if (palpites.isEmpty()) {
+            throw new IllegalArgumentException("A aposta deve ter ao menos um palpite.");
+        }
+        long somaFichas = 0;
+        for (Jogo palpite : palpites) {
+            somaFichas += palpite.getQtdFichas();
+        }
+        if (somaFichas > jogador.getQtdFicha()) {
+            Metricas.apostasRecusadas.increment();
+            throw new IllegalArgumentException("A quantidade de fichas disponível não é suficiente para realizar a aposta.");
+        }
+        int totalFichas = (int) somaFichas;
+
+        // reserva a exposição de cada palpite, desfazendo as reservas se algum for recusado. Com a
+        // política LIMITAR, um palpite pode ter sido reservado apenas em parte, e essa parte também é liberada.
+        int reservados = 0;
+        for (Jogo palpite : palpites) {
+            int reservado = exposicao.reservar(palpite);
+            if (reservado != palpite.getQtdFichas()) {
+                exposicao.liberar(palpite.getTipo(), palpite.getAlvo(), reservado);
+                palpites.subList(0, reservados).forEach(exposicao::liberar);
+                Metricas.apostasRecusadas.increment();
+                throw new IllegalStateException("A aposta ultrapassa o limite de exposição da casa no palpite " + palpite.getDescricao() + ".");
             }
-        } while (opcaoSelecionada == 0 && jogador.getQtdFicha() > 0);
+            reservados++;
+        }
 
-        // realizar o sorteio da aposta
-        this.corSorteada = sortearCor();
+        if (!jogador.removerFichas(totalFichas)) {
+            palpites.forEach(exposicao::liberar);
+            Metricas.apostasRecusadas.increment();
+            throw new IllegalArgumentException("A quantidade de fichas disponível não é suficiente para realizar a aposta.");
+        }
+
+        // define o ID da Aposta
+        this.idAposta = geradorIds.proximoId();
 
-        setPremioTotal();
-        anunciarGanhador();
-        jogador.adicionarFichas(this.premioTotal);
+        // guarda uma cópia dos palpites recebidos.
+        this.listaJogos = new ArrayList<Jogo>(palpites);
+        publicarApostaRealizada(jogador);
+
+        // realiza o sorteio e a liquidação da aposta.
+        setResultado(MotorApostas.apostar(jogador, this.listaJogos));
+        liberarExposicao();
+        Metricas.APOSTA.registrarDesde(inicio);
 
     }
 
+    /**
+     * Método construtor usado para registrar uma aposta liquidada
+     * por uma MesaRoleta, que sorteia e paga todas as apostas da
+     * rodada de uma só vez.
+     * @param listaJogos  os jogos da aposta.
+     * @param resultado   o resultado da liquidação da aposta.
+     */
+    Aposta (ArrayList<Jogo> listaJogos, ResultadoAposta resultado) {
+        this.idAposta = geradorIds.proximoId();
+        this.listaJogos = listaJogos;
+        setResultado(resultado);
+    }
+
+    /**
+     * Método construtor usado para reconstruir uma aposta já liquidada,
+     * lida do Diario ou do histórico, sem sortear nem movimentar fichas.
+     * O ID não é reservado no gerador: quem restaura apostas de um registro
+     * persistido deve chamar {@link #reservarId(int)}.
+     * @param idAposta        o ID original da aposta.
+     * @param numeroSorteado  o número sorteado na aposta.
+     * @param premioTotal     o prêmio total pago.
+     * @param listaJogos      os jogos da aposta.
+     */
+    Aposta (int idAposta, int numeroSorteado, int premioTotal, ArrayList<Jogo> listaJogos) {
+        this.idAposta = idAposta;
+        this.listaJogos = listaJogos;
+        this.numeroSorteado = numeroSorteado;
+        this.corSorteada = verificarCor(numeroSorteado);
+        this.premioTotal = premioTotal;
+        for (Jogo jogo : listaJogos) {
+            this.ganhou |= jogo.ganha(numeroSorteado);
+        }
+    }
+
     /**
      * Método responsável por realizar a criação de um
-     * novo jogo, lendo opções do jogador.
+     * novo jogo, lendo opções do jogador pela sua Interacao.
      * @param jogador jogador responsável pela ação.
      */
     public void criarJogo(Jogador jogador) {
 
-        // lê a cor que o jogador deseja palpitar
-        String[] opcoes = {"Vermelho", "Preto", "Verde"};
-        int opcaoSelecionada = InOut.leOpcoes("Criar novo jogo", "Em qual cor você deseja apostar?", opcoes);
+        Interacao interacao = jogador.getInteracao();
 
-        // define a quantidade de fichas que será apostada nessa cor.
+        // lê o tipo de palpite e o alvo que o jogador deseja palpitar.
+        TipoAposta[] tipos = TipoAposta.values();
+        String[] opcoesTipo = new String[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            opcoesTipo[i] = tipos[i].getNome();
+        }
+        TipoAposta tipo = tipos[interacao.leOpcoes("Criar novo jogo", "Qual tipo de palpite você deseja fazer?", opcoesTipo)];
+        int alvo = lerAlvo(tipo, interacao);
+        if (alvo < 0) {
+            interacao.MsgDeErro("Erro", "Esses números não formam um palpite do tipo " + tipo + ".");
+            return;
+        }
+        String descricao = tipo.descrever(alvo);
+
+        // define a quantidade de fichas que será apostada nesse palpite.
         int qtdFichasApostadas = 0;
         boolean indisponivel;
 
         do {
-            qtdFichasApostadas = InOut.leInt("Qual a quantidade de fichas que você deseja apostar na cor " + opcoes[opcaoSelecionada] + "?\nVocê possui " + jogador.getQtdFicha() + " fichas.");
-            indisponivel = !jogador.verificarDisponibilidadeFichas(qtdFichasApostadas);
+            qtdFichasApostadas = interacao.leInt("Qual a quantidade de fichas que você deseja apostar em " + descricao + "?\nVocê possui " + jogador.getQtdFicha() + " fichas.");
+            indisponivel = qtdFichasApostadas <= 0 || !jogador.verificarDisponibilidadeFichas(qtdFichasApostadas);
             if (indisponivel) {
-                InOut.MsgDeErro("Erro", "Essa quantidade de fichas não está disponível para apostar, insira uma quantidade menor ou igual ao seu saldo.");
+                interacao.MsgDeErro("Erro", "Essa quantidade de fichas não está disponível para apostar, insira uma quantidade positiva e menor ou igual ao seu saldo.");
             }
         } while (indisponivel);
 
-        // se a cor selecionada já tiver sido palpitada, erro.
-        if (listaJogos.containsKey(opcoes[opcaoSelecionada])) {
-            InOut.MsgDeErro("Erro", "Não é possível apostar na mesma cor duas vezes.");
+        Jogo novoJogo;
+        try {
+            novoJogo = new Jogo(tipo, alvo, qtdFichasApostadas);
+        } catch (IllegalArgumentException e) {
+            interacao.MsgDeErro("Erro", e.getMessage());
+            return;
+        }
+
+        // se o palpite já tiver sido feito, erro.
+        for (Jogo jogo : listaJogos) {
+            if (jogo.getTipo() == tipo && jogo.getAlvo() == alvo) {
+                interacao.MsgDeErro("Erro", "Não é possível fazer o mesmo palpite duas vezes.");
+                return;
+            }
+        }
+
+        // reserva a exposição da casa nos números cobertos pelo palpite; uma reserva parcial
+        // (política LIMITAR) é liberada, pois o palpite é recusado inteiro.
+        long inicio = System.nanoTime();
+        int reservado = exposicao.reservar(tipo, alvo, qtdFichasApostadas);
+        if (reservado != qtdFichasApostadas) {
+            exposicao.liberar(tipo, alvo, reservado);
+            Metricas.apostasRecusadas.increment();
+            interacao.MsgDeErro("Erro", "A casa não está aceitando essa quantidade de fichas em " + descricao + " no momento.");
             return;
         }
 
         // remove as fichas e coloca o palpite na lista de jogos da aposta.
-        jogador.removerFichas(qtdFichasApostadas);
-        listaJogos.put(opcoes[opcaoSelecionada], new Jogo(opcoes[opcaoSelecionada], qtdFichasApostadas));
+        if (!jogador.removerFichas(qtdFichasApostadas)) {
+            exposicao.liberar(tipo, alvo, qtdFichasApostadas);
+            Metricas.apostasRecusadas.increment();
+            interacao.MsgDeErro("Erro", "Essa quantidade de fichas não está mais disponível para apostar.");
+            return;
+        }
+        listaJogos.add(novoJogo);
+        Metricas.CRIAR_JOGO.registrarDesde(inicio);
 
     }
 
+    /**
+     * Método responsável por ler o alvo de um palpite. Tipos com poucos
+     * alvos são escolhidos em uma lista de opções; os demais são lidos
+     * como os números cobertos, separados por hífen (por exemplo, "17-20").
+     * @param tipo      o tipo do palpite.
+     * @param interacao a interação usada para ler o alvo.
+     * @return o alvo escolhido, ou -1 se os números não formarem um palpite do tipo.
+     */
+    private static int lerAlvo(TipoAposta tipo, Interacao interacao) {
+        if (tipo == TipoAposta.COR) {
+            Cor[] cores = {Cor.VERMELHO, Cor.PRETO, Cor.VERDE};
+            String[] opcoes = {"Vermelho", "Preto", "Verde"};
+            return cores[interacao.leOpcoes("Criar novo jogo", "Em qual cor você deseja apostar?", opcoes)].ordinal();
+        }
+        if (tipo.getQtdAlvos() <= 3) {
+            String[] opcoes = new String[tipo.getQtdAlvos()];
+            for (int alvo = 0; alvo < opcoes.length; alvo++) {
+                opcoes[alvo] = tipo.descrever(alvo);
+            }
+            return interacao.leOpcoes("Criar novo jogo", "Em qual opção de " + tipo + " você deseja apostar?", opcoes);
+        }
+
+        String exemplo = tipo == TipoAposta.LINHA ? "1-6" : tipo.descrever(0).replaceAll("^\\D+", "");
+        String entrada = interacao.leString("Informe os números do palpite do tipo " + tipo + ", separados por hífen (por exemplo, " + exemplo + ").");
+        if (entrada == null) {
+            return -1;
+        }
+        try {
+            String[] partes = entrada.trim().split("\\s*-\\s*");
+            int[] numeros = new int[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                numeros[i] = Integer.parseInt(partes[i]);
+            }
+            // uma linha também pode ser informada apenas pela sua primeira e última casa.
+            if (tipo == TipoAposta.LINHA && numeros.length == 2 && numeros[1] - numeros[0] == 5) {
+                numeros = new int[] {numeros[0], numeros[0] + 1, numeros[0] + 2, numeros[0] + 3, numeros[0] + 4, numeros[0] + 5};
+            }
+            return tipo.procurarAlvo(numeros);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     /**
      * Método utilizado para realizar o sorteio da
      * cor baseado na roleta.
-     * @return String com a cor sorteada.
+     * @return a cor sorteada.
      */
-    public static String sortearCor () {
-        // sorteia uma posição aleatória na roleta entre 0 e 36.
-        Random rd = new Random();
-        int posicaoSorteada = rd.nextInt(0,37);
-
+    public static Cor sortearCor () {
         // avisa ao jogador que o sorteio está sendo realizado.
-        InOut.MsgDeAviso("Aposta","O sorteio está acontecendo agora!");
+        Jogador.getInteracaoPadrao().MsgDeAviso("Aposta","O sorteio está acontecendo agora!");
+
+        // retorna a cor correspondente ao número sorteado.
+        return verificarCor(MotorApostas.sortearNumero());
+    }
 
-        // retorna a cor correspondente ao número armazenado nessa posição.
-        return verificarCor(roleta[posicaoSorteada]);
+    /**
+     * Método para obter o número armazenado em uma posição da roleta.
+     * @param posicao a posição na roleta, entre 0 e 36.
+     * @return o número armazenado nessa posição.
+     */
+    public static int getNumeroNaPosicao(int posicao) {
+        return roleta[posicao];
     }
 
     /**
      * Método responsável por verificar qual cor foi sorteada,
-     * a partir do número sorteado na roleta.
-     * @param numero
-     * @return
-     */
-    public static String verificarCor(int numero) {
-        if (Arrays.stream(numerosVermelhos).anyMatch(n -> n == numero)) {
-            return "Vermelho";
-        } else if (Arrays.stream(numerosPretos).anyMatch(n -> n == numero)) {
-            return "Preto";
-        } else {
-            return "Verde";
-        }
+     * a partir do número sorteado na roleta. A cor é obtida
+     * diretamente de uma tabela pré-calculada, sem percorrer
+     * as listas de números.
+     * @param numero o número sorteado.
+     * @return a cor correspondente ao número, ou Verde se ele não estiver na roleta.
+     */
+    public static Cor verificarCor(int numero) {
+        return Cor.doNumero(numero);
     }
 
     /**
-     * Método responsável por verificar qual jogo (palpite)
-     * da aposta foi o ganhador.
-     * @return o jogo ganhador ou um valor nulo.
+     * Método para obter a quantidade de posições da roleta.
+     * @return a quantidade de posições.
      */
-    private Jogo verificarJogoGanhador(){
-        Jogo jogo =  this.listaJogos.get(this.corSorteada);
-        return jogo;
+    public static int getQtdPosicoes() {
+        return roleta.length;
     }
 
     /**
      * Método responsável por anunciar para o usuário
      * o resultado da aposta, se o jogador ganhou ou perdeu
      * e seu saldo.
+     * @param interacao a interação usada para exibir o resultado.
      */
-    private void anunciarGanhador() {
-        if (verificarJogoGanhador() != null) {
-            InOut.MsgDeInformacao("Resultado da Aposta", "Parabéns! Você ganhou, a cor sorteada foi " + this.corSorteada + ". Seu prêmio total foi de " + this.premioTotal + " fichas.");
+    private void anunciarGanhador(Interacao interacao) {
+        if (this.ganhou) {
+            interacao.MsgDeInformacao("Resultado da Aposta", "Parabéns! Você ganhou, a cor sorteada foi " + this.corSorteada + ". Seu prêmio total foi de " + this.premioTotal + " fichas.");
         } else {
-            InOut.MsgDeInformacao("Resultado da Aposta", "Poxa! Não foi dessa vez, tente apostar novamente.");
+            interacao.MsgDeInformacao("Resultado da Aposta", "Poxa! Não foi dessa vez, tente apostar novamente.");
         }
     }
 
     /**
-     * Método responsável por definir qual o prêmio total
-     * da Aposta, com base no jogo ganhador.
+     * Método responsável por publicar no barramento de eventos
+     * que a aposta foi feita, antes do sorteio.
+     * @param jogador o usuário que está realizando a ação.
      */
-    private void setPremioTotal() {
-        Jogo jogoGanhador = verificarJogoGanhador();
-        if (jogoGanhador != null) {
-            this.premioTotal = jogoGanhador.calcularPremio();
-        } else {
-            this.premioTotal = 0;
+    private void publicarApostaRealizada(Jogador jogador) {
+        BarramentoEventos.getPadrao().publicarApostaRealizada(jogador.getIdJogador(), this.idAposta, getTotalFichas(), this.listaJogos.size());
+    }
+
+    /**
+     * Método para obter o total de fichas apostadas nos jogos da aposta.
+     * @return o total de fichas apostadas.
+     */
+    public int getTotalFichas() {
+        int total = 0;
+        for (Jogo jogo : this.listaJogos) {
+            total += jogo.getQtdFichas();
+        }
+        return total;
+    }
+
+    /**
+     * Método responsável por liberar a exposição da casa
+     * reservada pelos jogos da aposta, após a liquidação.
+     */
+    private void liberarExposicao() {
+        for (Jogo jogo : this.listaJogos) {
+            exposicao.liberar(jogo);
         }
     }
 
+    /**
+     * Método responsável por guardar na aposta o resultado
+     * da liquidação realizada pelo MotorApostas.
+     * @param resultado o resultado da aposta.
+     */
+    private void setResultado(ResultadoAposta resultado) {
+        this.numeroSorteado = resultado.getNumeroSorteado();
+        this.corSorteada = resultado.getCorSorteada();
+        this.premioTotal = resultado.getPremioTotal();
+        this.ganhou = resultado.isGanhou();
+    }
+
+    /**
+     * Método para substituir o gerador de IDs das apostas.
+     * @param gerador o novo gerador de IDs.
+     */
+    public static void setGeradorIds(GeradorIds gerador) {
+        geradorIds = gerador;
+    }
+
+    /**
+     * Método para garantir que as próximas apostas não reutilizem
+     * o ID de uma aposta restaurada.
+     * @param idAposta o ID já utilizado.
+     */
+    static void reservarId(int idAposta) {
+        geradorIds.reservarAte(idAposta);
+    }
+
+    /**
+     * Método para substituir o controle de exposição da casa
+     * usado pelas apostas individuais.
+     * @param controle o novo controle de exposição.
+     */
+    public static void setControleExposicao(ControleExposicao controle) {
+        exposicao = controle;
+    }
+
+    /**
+     * Método para obter o controle de exposição da casa.
+     * @return o controle de exposição.
+     */
+    public static ControleExposicao getControleExposicao() {
+        return exposicao;
+    }
+
     /**
      * Método para obter o ID da Aposta.
      * @return o ID da Aposta.
@@ -173,11 +431,19 @@ public class Aposta {
         return idAposta;
     }
 
+    /**
+     * Método para obter o número sorteado.
+     * @return o número sorteado.
+     */
+    public int getNumeroSorteado() {
+        return numeroSorteado;
+    }
+
     /**
      * Método para obter a cor sorteada.
      * @return a cor sorteada.
      */
-    public String getCorSorteada() {
+    public Cor getCorSorteada() {
         return corSorteada;
     }
 
@@ -192,9 +458,9 @@ public class Aposta {
     /**
      * Método para obter a lista de jogos.
      * @return a lista de jogos.
-     * @see HashMap
+     * @see ArrayList
      */
-    public HashMap<String, Jogo> getListaJogos() {
+    public ArrayList<Jogo> getListaJogos() {
         return listaJogos;
     }
 
@@ -0,0 +1,213 @@
+package POOBet;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * A classe ArquivoHistorico guarda em disco, somente por inclusão, o
+ * histórico de apostas liquidadas de um jogador. Cada aposta é um registro
+ * no formato {@code [tamanho][idAposta][instante][número][prêmio][qtdJogos][jogos][crc]},
+ * com o tipo, o alvo e as fichas de cada jogo.
+ * <p>
+ * O Instantaneo guarda apenas a quantidade de apostas e o tamanho válido do
+ * arquivo, de modo que gravar um instantâneo ou reiniciar o programa não
+ * depende do tamanho do histórico; as linhas só são lidas quando o
+ * histórico é consultado. As inclusões não são forçadas para o disco, pois
+ * o Diario também registra as apostas: o arquivo só é sincronizado antes de
+ * um instantâneo que permitirá descartar o diário.
+ * <p>
+ * Cada inclusão é escrita na posição informada por quem a faz, que é o fim
+ * do histórico já coberto pelo instantâneo e pelo diário; assim, o que tiver
+ * sido escrito depois disso antes de uma queda é simplesmente sobrescrito.
+ */
+public class ArquivoHistorico {
+
+    // tamanho (int) no início e CRC (int) no fim de cada registro.
+    private static final int TAMANHO_CABECALHO = 4;
+    private static final int TAMANHO_CRC = 4;
+
+    private final Path arquivo;
+    private FileChannel canal;
+    private ByteBuffer registro = ByteBuffer.allocate(256);
+    private final CRC32C crc = new CRC32C();
+    private boolean pendente;
+    private boolean criado;
+
+    /**
+     * Cria o histórico em disco guardado no arquivo informado. O arquivo só
+     * é aberto, ou criado, na primeira inclusão.
+     * @param arquivo o arquivo do histórico.
+     */
+    public ArquivoHistorico(Path arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    /**
+     * Escreve uma aposta liquidada no histórico.
+     * @param posicao   a posição do fim do histórico, onde a aposta será escrita.
+     * @param aposta    a aposta liquidada.
+     * @param instante  o instante da liquidação, em milissegundos desde 1970.
+     * @return a posição do fim do histórico após a aposta.
+     * @throws IOException se não for possível escrever no arquivo.
+     */
+    long gravar(long posicao, Aposta aposta, long instante) throws IOException {
+        List<Jogo> jogos = aposta.getListaJogos();
+        int[] palpites = new int[jogos.size()];
+        int[] fichas = new int[jogos.size()];
+        for (int i = 0; i < palpites.length; i++) {
+            Jogo jogo = jogos.get(i);
+            palpites[i] = jogo.getTipo().getIndice(jogo.getAlvo());
+            fichas[i] = jogo.getQtdFichas();
+        }
+        return gravar(posicao, aposta.getIdAposta(), instante, aposta.getNumeroSorteado(), aposta.getPremioTotal(), palpites, fichas);
+    }
+
+    /**
+     * Escreve uma aposta já liquidada no histórico, a partir dos seus dados.
+     * @param posicao         a posição do fim do histórico, onde a aposta será escrita.
+     * @param idAposta        o ID da aposta.
+     * @param instante        o instante da liquidação, em milissegundos desde 1970.
+     * @param numeroSorteado  o número sorteado.
+     * @param premioTotal     o prêmio total pago.
+     * @param palpites        o índice de cada palpite da aposta (ver TipoAposta.getIndice).
+     * @param fichas          as fichas apostadas em cada palpite.
+     * @return a posição do fim do histórico após a aposta.
+     * @throws IOException se não for possível escrever no arquivo.
+     */
+    synchronized long gravar(long posicao, int idAposta, long instante, int numeroSorteado, int premioTotal, int[] palpites, int[] fichas) throws IOException {
+        int tamanhoDados = 4 + 8 + 1 + 4 + 2 + palpites.length * (1 + 1 + 4);
+        int tamanhoRegistro = TAMANHO_CABECALHO + tamanhoDados + TAMANHO_CRC;
+        if (registro.capacity() < tamanhoRegistro) {
+            registro = ByteBuffer.allocate(Math.max(tamanhoRegistro, registro.capacity() * 2));
+        }
+
+        ByteBuffer r = registro;
+        r.clear();
+        r.putInt(tamanhoDados);
+        r.putInt(idAposta).putLong(instante).put((byte) numeroSorteado).putInt(premioTotal);
+        r.putShort((short) palpites.length);
+        for (int i = 0; i < palpites.length; i++) {
+            r.put((byte) TipoAposta.doPalpite(palpites[i]).ordinal()).put((byte) TipoAposta.getAlvoDoPalpite(palpites[i])).putInt(fichas[i]);
+        }
+        crc.reset();
+        crc.update(r.array(), TAMANHO_CABECALHO, tamanhoDados);
+        r.putInt((int) crc.getValue());
+        r.flip();
+
+        FileChannel c = abrir();
+        long fim = posicao;
+        while (r.hasRemaining()) {
+            fim += c.write(r, fim);
+        }
+        pendente = true;
+        return fim;
+    }
+
+    /**
+     * Força para o disco tudo o que já foi escrito no histórico, inclusive a
+     * entrada do arquivo no diretório, se ele acabou de ser criado. Pode ser
+     * chamado enquanto novas apostas são incluídas.
+     * @throws IOException se não for possível sincronizar o arquivo.
+     */
+    void sincronizar() throws IOException {
+        FileChannel c;
+        boolean sincronizarDiretorio;
+        synchronized (this) {
+            if (!pendente) {
+                return;
+            }
+            c = canal;
+            sincronizarDiretorio = criado;
+            pendente = false;
+            criado = false;
+        }
+        c.force(false);
+        if (sincronizarDiretorio) {
+            Instantaneo.sincronizarDiretorio(arquivo.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Lê as apostas do histórico até a posição informada.
+     * @param tamanho a posição do fim do histórico válido, guardada pelo instantâneo.
+     * @return o histórico lido.
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido.
+     */
+    synchronized HistoricoApostas carregar(long tamanho) throws IOException {
+        HistoricoApostas historico = new HistoricoApostas();
+        if (tamanho == 0) {
+            return historico;
+        }
+
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16));
+        } catch (NoSuchFileException e) {
+            throw new IOException("O histórico " + arquivo + " não existe.", e);
+        }
+
+        try (in) {
+            CRC32C crcLeitura = new CRC32C();
+            byte[] dados = new byte[256];
+            long posicao = 0;
+            while (posicao < tamanho) {
+                int tamanhoDados = in.readInt();
+                if (tamanhoDados < 4 + 8 + 1 + 4 + 2 || posicao + TAMANHO_CABECALHO + tamanhoDados + TAMANHO_CRC > tamanho) {
+                    throw new IOException("O histórico " + arquivo + " está corrompido.");
+                }
+                if (dados.length < tamanhoDados) {
+                    dados = new byte[Math.max(tamanhoDados, dados.length * 2)];
+                }
+                in.readFully(dados, 0, tamanhoDados);
+                crcLeitura.reset();
+                crcLeitura.update(dados, 0, tamanhoDados);
+                if (in.readInt() != (int) crcLeitura.getValue()) {
+                    throw new IOException("O histórico " + arquivo + " está corrompido.");
+                }
+
+                ByteBuffer r = ByteBuffer.wrap(dados, 0, tamanhoDados);
+                int idAposta = r.getInt();
+                long instante = r.getLong();
+                int numeroSorteado = r.get();
+                int premioTotal = r.getInt();
+                int qtdJogos = r.getShort();
+                int[] palpites = new int[qtdJogos];
+                int[] fichas = new int[qtdJogos];
+                for (int j = 0; j < qtdJogos; j++) {
+                    palpites[j] = TipoAposta.doIndice(r.get()).getIndice(r.get());
+                    fichas[j] = r.getInt();
+                }
+                historico.incluir(idAposta, instante, numeroSorteado, premioTotal, palpites, fichas);
+                posicao += TAMANHO_CABECALHO + tamanhoDados + TAMANHO_CRC;
+            }
+        } catch (EOFException e) {
+            throw new IOException("O histórico " + arquivo + " está incompleto.", e);
+        }
+        return historico;
+    }
+
+    /**
+     * Abre o arquivo na primeira inclusão, criando-o e ao seu diretório se necessário.
+     */
+    private FileChannel abrir() throws IOException {
+        if (canal == null) {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            criado = Files.notExists(arquivo);
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return canal;
+    }
+
+}
@@ -0,0 +1,321 @@
+package POOBet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A classe BarramentoEventos distribui os eventos de domínio (apostas,
+ * sorteios, liquidações, créditos e conversões) para ouvintes independentes,
+ * como a interface, a persistência, as métricas ou o controle de risco,
+ * sem que quem publica espere por eles.
+ * <p>
+ * O barramento segue o modelo do Disruptor: os eventos ficam em um buffer
+ * circular de objetos Evento criados de antemão. Quem publica reserva uma
+ * posição com um incremento atômico, preenche o evento e marca a posição como
+ * publicada; não há trava nenhuma. Cada ouvinte tem a sua própria thread e a
+ * sua própria sequência, e lê todos os eventos publicados desde a última
+ * leitura de uma só vez, em lote. Uma posição só é reescrita depois que todos
+ * os ouvintes a leram; se o ouvinte mais lento ficar uma volta inteira para
+ * trás, quem publica espera por ele.
+ * <p>
+ * Antes de iniciar() ou sem ouvintes, publicar não faz nada, então o domínio
+ * pode publicar sempre no barramento padrão.
+ *
+ * @see Evento
+ * @see OuvinteEventos
+ */
+public class BarramentoEventos {
+
+    /** Capacidade padrão do buffer, em eventos. */
+    public static final int CAPACIDADE_PADRAO = 1 << 16;
+
+    private static volatile BarramentoEventos padrao = new BarramentoEventos(2);
+
+    private final Evento[] eventos;
+    private final int mascara;
+    private final int bitsIndice;
+
+    // volta do buffer em que cada posição foi publicada pela última vez.
+    private final AtomicIntegerArray publicados;
+
+    // última sequência reservada por quem publica.
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    // menor sequência reservada e abandonada, sem publicar, por quem esperava no encerramento.
+    private final AtomicLong menorAbandonada = new AtomicLong(Long.MAX_VALUE);
+
+    // menor sequência lida por todos os ouvintes, recalculada apenas quando o buffer parece cheio.
+    private volatile long menorLidaCache = -1;
+
+    private final List<Consumidor> consumidores = new ArrayList<Consumidor>();
+    private volatile boolean iniciado;
+    private volatile boolean encerrado;
+
+    /**
+     * Cria um barramento ainda não iniciado.
+     * @param capacidade a quantidade de eventos do buffer, arredondada para uma potência de dois.
+     */
+    public BarramentoEventos(int capacidade) {
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1;
+        this.eventos = new Evento[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            eventos[i] = new Evento();
+        }
+        this.mascara = tamanho - 1;
+        this.bitsIndice = Integer.numberOfTrailingZeros(tamanho);
+        this.publicados = new AtomicIntegerArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            publicados.set(i, -1);
+        }
+    }
+
+    /**
+     * Obtém o barramento padrão, onde o domínio publica os seus eventos.
+     * @return o barramento padrão.
+     */
+    public static BarramentoEventos getPadrao() {
+        return padrao;
+    }
+
+    /**
+     * Substitui o barramento padrão.
+     * @param barramento o novo barramento padrão.
+     */
+    public static void setPadrao(BarramentoEventos barramento) {
+        padrao = barramento;
+    }
+
+    /**
+     * Inscreve um ouvinte. Deve ser chamado antes de iniciar().
+     * @param nome    o nome do ouvinte, usado no nome da sua thread.
+     * @param ouvinte o ouvinte.
+     * @throws IllegalStateException se o barramento já tiver sido iniciado.
+     */
+    public synchronized void inscrever(String nome, OuvinteEventos ouvinte) {
+        if (iniciado) {
+            throw new IllegalStateException("Os ouvintes devem ser inscritos antes de o barramento ser iniciado.");
+        }
+        consumidores.add(new Consumidor(nome, ouvinte));
+    }
+
+    /**
+     * Inicia as threads dos ouvintes. A partir daí os eventos publicados são entregues.
+     */
+    public synchronized void iniciar() {
+        if (iniciado || consumidores.isEmpty()) {
+            return;
+        }
+        for (Consumidor consumidor : consumidores) {
+            consumidor.thread.start();
+        }
+        iniciado = true;
+    }
+
+    /**
+     * Para o barramento: os ouvintes recebem os eventos já publicados e as suas threads terminam.
+     * Quem estava esperando por espaço no buffer desiste do seu evento; os
+     * ouvintes param na primeira sequência abandonada assim.
+     * @throws InterruptedException se a espera pelas threads for interrompida.
+     */
+    public void encerrar() throws InterruptedException {
+        encerrado = true;
+        List<Consumidor> lista;
+        synchronized (this) {
+            lista = new ArrayList<Consumidor>(consumidores);
+        }
+        for (Consumidor consumidor : lista) {
+            LockSupport.unpark(consumidor.thread);
+            if (consumidor.thread.isAlive()) {
+                consumidor.thread.join();
+            }
+        }
+    }
+
+    /**
+     * Obtém a última sequência publicada ou em publicação.
+     * @return a sequência do último evento, ou -1 se nenhum foi publicado.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Publica que uma aposta foi feita.
+     * @param idJogador o ID do jogador.
+     * @param idAposta  o ID da aposta, ou 0 se ela ainda não tiver ID.
+     * @param fichas    o total de fichas apostadas.
+     * @param qtdJogos  a quantidade de palpites.
+     */
+    public void publicarApostaRealizada(int idJogador, int idAposta, int fichas, int qtdJogos) {
+        publicar(TipoEvento.APOSTA_REALIZADA, idJogador, idAposta, 0, fichas, 0, qtdJogos, 0);
+    }
+
+    /**
+     * Publica o número sorteado em um giro da roleta.
+     * @param numeroSorteado o número sorteado.
+     */
+    public void publicarResultadoSorteio(int numeroSorteado) {
+        publicar(TipoEvento.RESULTADO_SORTEIO, 0, 0, numeroSorteado, 0, 0, 0, 0);
+    }
+
+    /**
+     * Publica que uma aposta foi liquidada.
+     * @param idJogador       o ID do jogador.
+     * @param idAposta        o ID da aposta.
+     * @param numeroSorteado  o número sorteado.
+     * @param fichas          o total de fichas apostadas.
+     * @param premio          o prêmio pago, em fichas.
+     * @param qtdJogos        a quantidade de palpites.
+     */
+    public void publicarApostaLiquidada(int idJogador, int idAposta, int numeroSorteado, int fichas, int premio, int qtdJogos) {
+        publicar(TipoEvento.APOSTA_LIQUIDADA, idJogador, idAposta, numeroSorteado, fichas, premio, qtdJogos, 0);
+    }
+
+    /**
+     * Publica que crédito foi adicionado à conta de um jogador.
+     * @param idJogador o ID do jogador.
+     * @param centavos  o valor depositado, em centavos.
+     */
+    public void publicarCreditoAdicionado(int idJogador, long centavos) {
+        publicar(TipoEvento.CREDITO_ADICIONADO, idJogador, 0, 0, 0, 0, 0, centavos);
+    }
+
+    /**
+     * Publica uma conversão entre saldo e fichas.
+     * @param idJogador o ID do jogador.
+     * @param fichas    as fichas compradas (positivas) ou convertidas em saldo (negativas).
+     * @param centavos  o valor convertido, em centavos.
+     */
+    public void publicarFichasConvertidas(int idJogador, int fichas, long centavos) {
+        publicar(TipoEvento.FICHAS_CONVERTIDAS, idJogador, 0, 0, fichas, 0, 0, centavos);
+    }
+
+    private void publicar(TipoEvento tipo, int idJogador, int idAposta, int numeroSorteado, int fichas, int premio, int qtdJogos, long centavos) {
+        if (!iniciado || encerrado) {
+            return;
+        }
+        long sequencia = reservar();
+        if (sequencia < 0) {
+            return;
+        }
+        Evento evento = eventos[(int) sequencia & mascara];
+        evento.tipo = tipo;
+        evento.instante = System.currentTimeMillis();
+        evento.idJogador = idJogador;
+        evento.idAposta = idAposta;
+        evento.numeroSorteado = numeroSorteado;
+        evento.fichas = fichas;
+        evento.premio = premio;
+        evento.qtdJogos = qtdJogos;
+        evento.centavos = centavos;
+
+        // a escrita ordenada publica os campos do evento junto com a marca da posição.
+        publicados.lazySet((int) sequencia & mascara, (int) (sequencia >>> bitsIndice));
+    }
+
+    /**
+     * Reserva a próxima sequência, esperando se o ouvinte mais lento ainda
+     * não tiver lido a posição que ela vai reescrever.
+     * @return a sequência reservada, ou -1 se o barramento for encerrado durante a espera.
+     */
+    private long reservar() {
+        long sequencia = cursor.incrementAndGet();
+        long reescrita = sequencia - eventos.length;
+        if (reescrita > menorLidaCache) {
+            long menor;
+            while (reescrita > (menor = menorSequenciaLida())) {
+                if (encerrado) {
+                    // a sequência já foi tomada e nunca será publicada: os ouvintes param nela.
+                    menorAbandonada.accumulateAndGet(sequencia, Math::min);
+                    return -1;
+                }
+                LockSupport.parkNanos(1000);
+            }
+            menorLidaCache = menor;
+        }
+        return sequencia;
+    }
+
+    private long menorSequenciaLida() {
+        long menor = Long.MAX_VALUE;
+        for (Consumidor consumidor : consumidores) {
+            menor = Math.min(menor, consumidor.lida.get());
+        }
+        return menor;
+    }
+
+    /**
+     * Verifica se a sequência já foi publicada, isto é, se a sua posição foi marcada na volta certa.
+     */
+    private boolean publicado(long sequencia) {
+        return publicados.get((int) sequencia & mascara) == (int) (sequencia >>> bitsIndice);
+    }
+
+    /**
+     * Um ouvinte com a sua thread e a última sequência que ele leu.
+     */
+    private class Consumidor implements Runnable {
+
+        private final OuvinteEventos ouvinte;
+        private final AtomicLong lida = new AtomicLong(-1);
+        private final Thread thread;
+
+        Consumidor(String nome, OuvinteEventos ouvinte) {
+            this.ouvinte = ouvinte;
+            this.thread = new Thread(this, "eventos-" + nome);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long proxima = 0;
+            int ociosas = 0;
+            while (true) {
+                // avança até o último evento publicado sem lacunas, pois quem publica pode terminar fora de ordem.
+                long limite = cursor.get();
+                long ultima = proxima - 1;
+                while (ultima < limite && publicado(ultima + 1)) {
+                    ultima++;
+                }
+
+                if (ultima < proxima) {
+                    if (encerrado && (proxima > cursor.get() || proxima >= menorAbandonada.get())) {
+                        return;
+                    }
+                    ociosas = esperar(ociosas);
+                    continue;
+                }
+                ociosas = 0;
+
+                for (long s = proxima; s <= ultima; s++) {
+                    try {
+                        ouvinte.aoReceber(eventos[(int) s & mascara], s, s == ultima);
+                    } catch (RuntimeException e) {
+                        System.err.println("O ouvinte " + thread.getName() + " falhou no evento " + s + ": " + e);
+                    }
+                }
+                lida.lazySet(ultima);
+                proxima = ultima + 1;
+            }
+        }
+
+        /**
+         * Espera por novos eventos: primeiro girando, depois cedendo a thread e,
+         * por fim, dormindo um pouco, para não ocupar um processador à toa.
+         */
+        private int esperar(int ociosas) {
+            if (ociosas < 100) {
+                Thread.onSpinWait();
+            } else if (ociosas < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+            return ociosas + 1;
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package POOBet;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A classe ControleExposicao acompanha, em tempo real, quanto a casa terá
+ * de pagar se cada número da roleta for sorteado (a exposição), considerando
+ * todas as apostas ainda não liquidadas. Cada palpite reserva o seu prêmio
+ * em todos os números que cobre ao ser criado e o libera ao ser liquidado.
+ * <p>
+ * Se a reserva fizer a exposição de algum número ultrapassar o limite
+ * configurado, o palpite é recusado ou reduzido ao valor que ainda cabe no
+ * limite, conforme a política escolhida. A reserva usa apenas
+ * compare-and-set, sem trava nenhuma; se outra thread ocupar o limite no
+ * meio de uma reserva, a parte já reservada é desfeita e a reserva é refeita.
+ */
+public class ControleExposicao {
+
+    /**
+     * O que fazer com uma aposta que ultrapassaria o limite de exposição.
+     */
+    public enum Politica {
+        /** Recusa a aposta inteira. */
+        RECUSAR,
+        /** Aceita apenas as fichas que ainda cabem no limite. */
+        LIMITAR
+    }
+
+    // cada número ocupa uma linha de cache diferente, para que apostas em
+    // números diferentes não disputem a mesma linha.
+    private static final int ESPACAMENTO = 16;
+
+    private final int qtdNumeros = Aposta.getQtdPosicoes();
+    private final AtomicLongArray exposicao = new AtomicLongArray(qtdNumeros * ESPACAMENTO);
+    private final long limite;
+    private final Politica politica;
+
+    /**
+     * Cria um controle sem limite de exposição, que apenas acompanha os valores.
+     */
+    public ControleExposicao() {
+        this(Long.MAX_VALUE, Politica.RECUSAR);
+    }
+
+    /**
+     * Cria um controle com limite de exposição por número.
+     * @param limite    a exposição máxima, em fichas, aceita em cada número.
+     * @param politica  o que fazer com as apostas que ultrapassariam o limite.
+     */
+    public ControleExposicao(long limite, Politica politica) {
+        this.limite = limite;
+        this.politica = politica;
+    }
+
+    /**
+     * Reserva a exposição de um palpite em todos os números que ele cobre.
+     *
+     * @param tipo    o tipo do palpite.
+     * @param alvo    o alvo do palpite.
+     * @param fichas  a quantidade de fichas apostada.
+     * @return a quantidade de fichas aceita: todas, nenhuma ou, com a política
+     *         LIMITAR, apenas as que cabem no limite.
+     */
+    public int reservar(TipoAposta tipo, int alvo, int fichas) {
+        long premio = tipo.getPremio(alvo);
+        while (true) {
+            // quantas fichas cabem no limite de todos os números cobertos.
+            long aceitas = fichas;
+            for (int numero = 0; numero < qtdNumeros; numero++) {
+                if (tipo.ganha(alvo, numero)) {
+                    long disponivel = limite - exposicao.get(numero * ESPACAMENTO);
+                    aceitas = Math.min(aceitas, Math.max(0, disponivel / premio));
+                }
+            }
+            if (aceitas <= 0 || (aceitas < fichas && politica == Politica.RECUSAR)) {
+                return 0;
+            }
+
+            long valor = aceitas * premio;
+            int numero = 0;
+            while (numero < qtdNumeros && (!tipo.ganha(alvo, numero) || adicionar(numero, valor))) {
+                numero++;
+            }
+            if (numero == qtdNumeros) {
+                return (int) aceitas;
+            }
+
+            // outra thread ocupou o limite no meio da reserva: desfaz e tenta de novo.
+            for (int anterior = 0; anterior < numero; anterior++) {
+                if (tipo.ganha(alvo, anterior)) {
+                    exposicao.addAndGet(anterior * ESPACAMENTO, -valor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva a exposição de um palpite.
+     * @param jogo o palpite.
+     * @return a quantidade de fichas aceita.
+     * @see #reservar(TipoAposta, int, int)
+     */
+    public int reservar(Jogo jogo) {
+        return reservar(jogo.getTipo(), jogo.getAlvo(), jogo.getQtdFichas());
+    }
+
+    /**
+     * Reserva a exposição de uma aposta em uma cor.
+     * @param cor     a cor apostada.
+     * @param fichas  a quantidade de fichas apostada.
+     * @return a quantidade de fichas aceita.
+     * @see #reservar(TipoAposta, int, int)
+     */
+    public int reservar(Cor cor, int fichas) {
+        return reservar(TipoAposta.COR, cor.ordinal(), fichas);
+    }
+
+    /**
+     * Soma um valor à exposição de um número, se couber no limite.
+     */
+    private boolean adicionar(int numero, long valor) {
+        int indice = numero * ESPACAMENTO;
+        long atual;
+        do {
+            atual = exposicao.get(indice);
+            if (valor > limite - atual) {
+                return false;
+            }
+        } while (!exposicao.compareAndSet(indice, atual, atual + valor));
+        return true;
+    }
+
+    /**
+     * Libera a exposição de um palpite liquidado ou cancelado.
+     * @param tipo    o tipo do palpite.
+     * @param alvo    o alvo do palpite.
+     * @param fichas  a quantidade de fichas reservada.
+     */
+    public void liberar(TipoAposta tipo, int alvo, long fichas) {
+        long valor = fichas * tipo.getPremio(alvo);
+        for (int numero = 0; numero < qtdNumeros; numero++) {
+            if (tipo.ganha(alvo, numero)) {
+                exposicao.addAndGet(numero * ESPACAMENTO, -valor);
+            }
+        }
+    }
+
+    /**
+     * Libera a exposição de um palpite liquidado ou cancelado.
+     * @param jogo o palpite.
+     */
+    public void liberar(Jogo jogo) {
+        liberar(jogo.getTipo(), jogo.getAlvo(), jogo.getQtdFichas());
+    }
+
+    /**
+     * Libera a exposição de uma aposta em uma cor.
+     * @param cor     a cor apostada.
+     * @param fichas  a quantidade de fichas reservada.
+     */
+    public void liberar(Cor cor, long fichas) {
+        liberar(TipoAposta.COR, cor.ordinal(), fichas);
+    }
+
+    /**
+     * Obtém quanto a casa pagará, em fichas, se o número informado for sorteado.
+     * @param numero o número consultado.
+     * @return a exposição atual do número.
+     */
+    public long getExposicao(int numero) {
+        return exposicao.get(numero * ESPACAMENTO);
+    }
+
+    /**
+     * Obtém quanto a casa pagará, no pior caso, se a cor informada for sorteada.
+     * @param cor a cor consultada.
+     * @return a maior exposição entre os números da cor.
+     */
+    public long getExposicao(Cor cor) {
+        long maior = 0;
+        for (int numero = 0; numero < qtdNumeros; numero++) {
+            if (Cor.doNumero(numero) == cor) {
+                maior = Math.max(maior, exposicao.get(numero * ESPACAMENTO));
+            }
+        }
+        return maior;
+    }
+
+    /**
+     * Obtém o limite de exposição por número.
+     * @return o limite, em fichas.
+     */
+    public long getLimite() {
+        return limite;
+    }
+
+}
@@ -0,0 +1,108 @@
+package POOBet;
+
+import java.util.Arrays;
+
+/**
+ * O enum Cor representa as cores da roleta e o prêmio pago, por ficha,
+ * a quem aposta em cada uma delas. A cor de cada número é obtida de uma
+ * tabela indexada pelo próprio número, sem comparar Strings.
+ */
+public enum Cor {
+
+    VERDE("Verde", 14),
+    VERMELHO("Vermelho", 2),
+    PRETO("Preto", 2);
+
+    private static final int[] numerosVermelhos = {1, 3, 5, 7, 9, 12, 14, 16, 18, 19, 21, 23, 25, 27, 30, 32, 34, 36};
+    private static final int[] numerosPretos = {2, 4, 6, 8, 10, 11, 13, 15, 17, 20, 22, 24, 26, 28, 29, 31, 33, 35};
+
+    // cópia de values(), que cria um novo vetor a cada chamada.
+    private static final Cor[] VALORES = values();
+
+    // tabela com a cor de cada número da roleta, indexada pelo próprio número.
+    private static final Cor[] corPorNumero = new Cor[37];
+
+    static {
+        // números ausentes das listas ficam Verde.
+        Arrays.fill(corPorNumero, VERDE);
+        for (int numero : numerosVermelhos) {
+            corPorNumero[numero] = VERMELHO;
+        }
+        for (int numero : numerosPretos) {
+            corPorNumero[numero] = PRETO;
+        }
+    }
+
+    private final String nome;
+    private final int premio;
+
+    Cor(String nome, int premio) {
+        this.nome = nome;
+        this.premio = premio;
+    }
+
+    /**
+     * Obtém a cor de um número da roleta.
+     * @param numero o número sorteado.
+     * @return a cor do número, ou VERDE se ele não estiver na roleta.
+     */
+    public static Cor doNumero(int numero) {
+        if (numero < 0 || numero >= corPorNumero.length) {
+            return VERDE;
+        }
+        return corPorNumero[numero];
+    }
+
+    /**
+     * Obtém a cor a partir do seu índice (ordinal).
+     * @param indice o índice da cor.
+     * @return a cor correspondente.
+     */
+    public static Cor doIndice(int indice) {
+        return VALORES[indice];
+    }
+
+    /**
+     * Obtém a cor a partir do seu nome, sem diferenciar maiúsculas de minúsculas.
+     * @param nome o nome da cor, por exemplo "Vermelho".
+     * @return a cor correspondente, ou null se o nome não for de nenhuma cor.
+     */
+    public static Cor doNome(String nome) {
+        for (Cor cor : VALORES) {
+            if (cor.nome.equalsIgnoreCase(nome)) {
+                return cor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtém a quantidade de cores da roleta.
+     * @return a quantidade de cores.
+     */
+    public static int getQtdCores() {
+        return VALORES.length;
+    }
+
+    /**
+     * Obtém o nome da cor, como exibido ao jogador.
+     * @return o nome da cor.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o prêmio pago por ficha apostada na cor, incluindo a própria ficha.
+     * @return o prêmio por ficha.
+     */
+    public int getPremio() {
+        return premio;
+    }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+
+}
@@ -1,104 +1,283 @@
 package POOBet;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Date;
 /**
  * A classe Credito representa um saldo de moeda em uma conta de jogador, com data de validade.
  * Os jogadores podem adicionar ou remover saldo e verificar a disponibilidade do saldo.
+ * O saldo é guardado em centavos (ponto fixo), então as operações são exatas.
+ * <p>
+ * Cada depósito forma um lote com a sua própria validade, de 90 dias a partir
+ * do dia do depósito; depósitos posteriores não estendem a validade dos lotes
+ * anteriores. Retiradas consomem os lotes do mais antigo para o mais novo
+ * (FIFO), que são também os primeiros a expirar. Depósitos com a mesma
+ * validade, isto é, feitos no mesmo dia, são somados no mesmo lote.
+ * <p>
+ * Os lotes ficam em um buffer circular de vetores primitivos, então incluir,
+ * consumir e expirar um lote custa O(1) amortizado, mesmo para jogadores com
+ * milhares de depósitos. As alterações são feitas sob a trava do próprio
+ * objeto, e o saldo total é publicado em um campo volatile, lido sem trava.
+ * <p>
+ * A validade é guardada como um dia (dias desde 01/01/1970), calculado pela
+ * classe Dias sem criar objetos. A Date só é montada quando a validade é consultada.
+ *
+ * @see Dinheiro
+ * @see Dias
  */
 public class Credito {
 
-    private double saldo;
-    private Date validade;
+    /** Valor de getDiaValidade() enquanto não houver validade definida. */
+    public static final int SEM_VALIDADE = Integer.MIN_VALUE;
+
+    /** Quantidade de dias de validade de um depósito. */
+    public static final int DIAS_VALIDADE = 90;
+
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    // lotes em um buffer circular: o mais antigo em inicioLotes, os demais em seguida.
+    private long[] valoresLotes = new long[CAPACIDADE_INICIAL];
+    private int[] diasLotes = new int[CAPACIDADE_INICIAL];
+    private int inicioLotes;
+    private int qtdLotes;
+
+    private volatile long saldoCentavos;
     private String moeda = "BRL";
-    private Jogador jogador;
 
     /**
-     * Adiciona um valor ao saldo da conta do jogador.
+     * Adiciona um valor ao saldo da conta do jogador, em um lote válido por 90 dias a partir de hoje.
      *
-     * @param saldoAdicionar O valor a ser adicionado ao saldo.
+     * @param centavosAdicionar O valor, em centavos, a ser adicionado ao saldo.
+     * @throws IllegalArgumentException se o valor for negativo.
      */
-    public void adicionarSaldo(double saldoAdicionar) {
-        this.saldo += saldoAdicionar;
-        setValidade();
+    public void adicionarSaldo(long centavosAdicionar) {
+        adicionarLote(centavosAdicionar, Dias.hoje() + DIAS_VALIDADE);
     }
 
     /**
-     * Remove um valor do saldo da conta do jogador, desde que haja saldo disponível.
+     * Adiciona um lote ao saldo, com a validade informada. Se a validade for a
+     * mesma do lote mais novo, o valor é somado a ele.
      *
-     * @param saldoRemover O valor a ser removido do saldo.
+     * @param centavos     O valor do lote, em centavos.
+     * @param diaValidade  O último dia de validade do lote, em dias desde 01/01/1970.
+     * @throws IllegalArgumentException se o valor for negativo.
      */
-    public void removerSaldo(double saldoRemover) {
-        if (verificarDisponibilidade(saldoRemover)) {
-            this.saldo -= saldoRemover;
+    synchronized void adicionarLote(long centavos, int diaValidade) {
+        if (centavos < 0) {
+            throw new IllegalArgumentException("O valor a ser adicionado não pode ser negativo.");
+        }
+        if (centavos == 0) {
+            return;
+        }
+        if (qtdLotes > 0 && diasLotes[posicaoLote(qtdLotes - 1)] == diaValidade) {
+            valoresLotes[posicaoLote(qtdLotes - 1)] += centavos;
         } else {
-            InOut.MsgDeErro("Erro na retirada","Você não pode retirar um valor maior que seu saldo atual.");
+            if (qtdLotes == valoresLotes.length) {
+                crescer();
+            }
+            int p = posicaoLote(qtdLotes);
+            valoresLotes[p] = centavos;
+            diasLotes[p] = diaValidade;
+            qtdLotes++;
+        }
+        this.saldoCentavos += centavos;
+    }
+
+    /**
+     * Remove um valor do saldo da conta do jogador, desde que haja saldo disponível,
+     * avisando pela Interacao padrão quando não houver.
+     *
+     * @param centavosRemover O valor, em centavos, a ser removido do saldo.
+     * @return true se a remoção for bem-sucedida, false caso contrário.
+     */
+    public boolean removerSaldo(long centavosRemover) {
+        return removerSaldo(centavosRemover, Jogador.getInteracaoPadrao());
+    }
+
+    /**
+     * Remove um valor do saldo da conta do jogador, desde que haja saldo disponível.
+     *
+     * @param centavosRemover O valor, em centavos, a ser removido do saldo.
+     * @param interacao       A interação pela qual o erro é informado.
+     * @return true se a remoção for bem-sucedida, false caso contrário.
+     */
+    public boolean removerSaldo(long centavosRemover, Interacao interacao) {
+        if (!tentarRemoverSaldo(centavosRemover)) {
+            interacao.MsgDeErro("Erro na retirada","Você não pode retirar um valor maior que seu saldo atual.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove um valor do saldo da conta do jogador caso haja saldo disponível,
+     * consumindo os lotes do mais antigo para o mais novo. A verificação e a
+     * remoção acontecem de forma atômica.
+     *
+     * @param centavosRemover O valor, em centavos, a ser removido do saldo.
+     * @return true se a remoção for bem-sucedida, false caso contrário.
+     */
+    public synchronized boolean tentarRemoverSaldo(long centavosRemover) {
+        if (centavosRemover < 0 || this.saldoCentavos < centavosRemover) {
+            return false;
+        }
+        long restante = centavosRemover;
+        while (restante > 0) {
+            long valor = valoresLotes[inicioLotes];
+            if (valor > restante) {
+                valoresLotes[inicioLotes] = valor - restante;
+                break;
+            }
+            restante -= valor;
+            removerLoteMaisAntigo();
         }
+        this.saldoCentavos -= centavosRemover;
+        return true;
+    }
+
+    /**
+     * Remove todos os lotes cuja validade já passou.
+     *
+     * @param hoje O dia atual, em dias desde 01/01/1970.
+     * @return O valor expirado, em centavos.
+     */
+    synchronized long expirar(int hoje) {
+        long expirado = 0;
+        while (qtdLotes > 0 && diasLotes[inicioLotes] < hoje) {
+            expirado += valoresLotes[inicioLotes];
+            removerLoteMaisAntigo();
+        }
+        this.saldoCentavos -= expirado;
+        return expirado;
     }
 
     /**
      * Verifica se há saldo disponível na conta do jogador para uma operação específica.
      *
-     * @param valor O valor a ser verificado em relação ao saldo atual.
+     * @param centavos O valor, em centavos, a ser verificado em relação ao saldo atual.
      * @return true se houver saldo disponível, false caso contrário.
      */
-    public boolean verificarDisponibilidade(double valor) {
-        return this.saldo >= valor;
+    public boolean verificarDisponibilidade(long centavos) {
+        return this.saldoCentavos >= centavos;
     }
 
     /**
-     * Obtém o saldo atual da conta do jogador.
+     * Obtém o saldo atual da conta do jogador, em centavos.
      *
-     * @return O saldo atual da conta.
+     * @return O saldo atual da conta, em centavos.
      */
-    public double getSaldo() {
-        return this.saldo;
+    public long getSaldoCentavos() {
+        return this.saldoCentavos;
     }
 
     /**
-     * Obtém a data de validade do saldo.
+     * Obtém a data de validade do lote mais antigo, o próximo a expirar.
      *
-     * @return A data de validade do saldo.
+     * @return A data de validade, à meia-noite, ou null se não houver saldo.
      */
     public Date getValidade() {
-        return validade;
+        int dia = getDiaValidade();
+        return dia != SEM_VALIDADE ? Dias.paraData(dia) : null;
     }
 
     /**
-     * Define a data de validade do saldo, que é 90 dias a partir do momento da chamada.
+     * Obtém o último dia de validade do lote mais antigo, o próximo a expirar.
+     *
+     * @return O dia, em dias desde 01/01/1970, ou SEM_VALIDADE se não houver saldo.
      */
-    public void setValidade() {
-        Instant instanteAtual = Instant.now();
-        Date dataValidade = Date.from(instanteAtual.plus(90, ChronoUnit.DAYS));
-        this.validade = removerHora(dataValidade);
+    public synchronized int getDiaValidade() {
+        return qtdLotes > 0 ? diasLotes[inicioLotes] : SEM_VALIDADE;
     }
 
     /**
-     * Obtém a moeda utilizada na conta do jogador.
+     * Obtém o último dia de validade do lote mais novo.
      *
-     * @return A moeda da conta (por exemplo, "BRL").
+     * @return O dia, em dias desde 01/01/1970, ou SEM_VALIDADE se não houver saldo.
      */
-    public String getMoeda() {
-        return moeda;
+    synchronized int getDiaValidadeMaisNovo() {
+        return qtdLotes > 0 ? diasLotes[posicaoLote(qtdLotes - 1)] : SEM_VALIDADE;
     }
 
     /**
-     * Remove a informação de hora de uma data, definindo as horas, minutos, segundos e milissegundos para zero.
+     * Obtém a quantidade de lotes com saldo.
      *
-     * @param data A data da qual se deseja remover a informação de hora.
-     * @return A data sem informação de hora.
+     * @return A quantidade de lotes.
      */
-    public static Date removerHora(Date data) {
-        Calendar calendar = Calendar.getInstance();
+    public synchronized int getQtdLotes() {
+        return qtdLotes;
+    }
 
-        calendar.setTime(data);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
+    /**
+     * Copia os lotes, do mais antigo para o mais novo, e o saldo para um Instantaneo.
+     *
+     * @param estado O estado onde os lotes são copiados.
+     */
+    synchronized void capturar(Instantaneo.EstadoJogador estado) {
+        estado.saldoCentavos = this.saldoCentavos;
+        estado.valoresLotes = new long[qtdLotes];
+        estado.diasLotes = new int[qtdLotes];
+        for (int i = 0; i < qtdLotes; i++) {
+            estado.valoresLotes[i] = valoresLotes[posicaoLote(i)];
+            estado.diasLotes[i] = diasLotes[posicaoLote(i)];
+        }
+    }
 
-        return calendar.getTime();
+    /**
+     * Restaura os lotes a partir de um Instantaneo.
+     *
+     * @param valores Os valores dos lotes, do mais antigo para o mais novo, em centavos.
+     * @param dias    Os últimos dias de validade dos lotes.
+     */
+    synchronized void restaurar(long[] valores, int[] dias) {
+        int capacidade = CAPACIDADE_INICIAL;
+        while (capacidade < valores.length) {
+            capacidade <<= 1;
+        }
+        this.valoresLotes = Arrays.copyOf(valores, capacidade);
+        this.diasLotes = Arrays.copyOf(dias, capacidade);
+        this.inicioLotes = 0;
+        this.qtdLotes = valores.length;
+        long saldo = 0;
+        for (long valor : valores) {
+            saldo += valor;
+        }
+        this.saldoCentavos = saldo;
+    }
+
+    /**
+     * Calcula a posição no buffer do i-ésimo lote, a partir do mais antigo.
+     */
+    private int posicaoLote(int i) {
+        return (inicioLotes + i) & (valoresLotes.length - 1);
+    }
+
+    private void removerLoteMaisAntigo() {
+        inicioLotes = (inicioLotes + 1) & (valoresLotes.length - 1);
+        qtdLotes--;
+    }
+
+    /**
+     * Dobra a capacidade do buffer, desenrolando os lotes para o início dos novos vetores.
+     */
+    private void crescer() {
+        int capacidade = valoresLotes.length;
+        long[] novosValores = new long[capacidade * 2];
+        int[] novosDias = new int[capacidade * 2];
+        int ateOFim = capacidade - inicioLotes;
+        System.arraycopy(valoresLotes, inicioLotes, novosValores, 0, ateOFim);
+        System.arraycopy(valoresLotes, 0, novosValores, ateOFim, inicioLotes);
+        System.arraycopy(diasLotes, inicioLotes, novosDias, 0, ateOFim);
+        System.arraycopy(diasLotes, 0, novosDias, ateOFim, inicioLotes);
+        valoresLotes = novosValores;
+        diasLotes = novosDias;
+        inicioLotes = 0;
+    }
+
+    /**
+     * Obtém a moeda utilizada na conta do jogador.
+     *
+     * @return A moeda da conta (por exemplo, "BRL").
+     */
+    public String getMoeda() {
+        return moeda;
     }
 }
@@ -0,0 +1,419 @@
+package POOBet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * A classe Diario é um registro binário, somente de inclusão, de todas as
+ * movimentações de crédito, de fichas e das apostas liquidadas. Ele permite
+ * reconstruir o estado dos jogadores ao reiniciar o programa.
+ * <p>
+ * Os registros são gravados em segmentos de tamanho fixo mapeados em memória
+ * ({@code diario-NNNNNNNNNN.seg}); ao encher um segmento, o próximo é criado.
+ * Cada registro tem o formato {@code [tamanho][tipo][instante][dados][crc]},
+ * e a leitura para no primeiro registro vazio ou com CRC inválido.
+ * <p>
+ * A gravação em disco usa commit em grupo: quem registra uma movimentação
+ * chama {@link #sincronizar(long)} com a posição devolvida, e uma única
+ * sincronização cobre todos os registros escritos até aquele momento por
+ * qualquer thread.
+ * <p>
+ * Cada registro leva a versão do jogador no momento da movimentação. Ao
+ * reproduzir o diário, registros com versão já refletida no jogador (por
+ * exemplo, restaurada de um Instantaneo) são ignorados.
+ */
+public class Diario implements Closeable {
+
+    public static final byte TIPO_CREDITO = 1;
+    public static final byte TIPO_FICHAS = 2;
+    /** Aposta gravada antes dos tipos de palpite, com jogos apenas em cores; só é lida. */
+    public static final byte TIPO_APOSTA = 3;
+    public static final byte TIPO_APOSTA_TIPADA = 4;
+
+    /** Tamanho padrão de cada segmento do diário, em bytes. */
+    public static final int TAMANHO_SEGMENTO_PADRAO = 64 * 1024 * 1024;
+
+    // tamanho (int), tipo (byte) e instante (long) no início de cada registro.
+    private static final int TAMANHO_CABECALHO = 4 + 1 + 8;
+    private static final int TAMANHO_CRC = 4;
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+
+    // estado de escrita, protegido pelo monitor do próprio objeto.
+    private long indiceSegmento;
+    private MappedByteBuffer segmento;
+    private ByteBuffer registro = ByteBuffer.allocate(256);
+    private final CRC32C crc = new CRC32C();
+    private boolean fechado;
+
+    // estado de sincronização, protegido por travaSincronizacao.
+    private final Object travaSincronizacao = new Object();
+    private long posicaoSincronizada;
+
+    /**
+     * Abre o diário armazenado no diretório informado, criando-o se necessário,
+     * com segmentos do tamanho padrão.
+     *
+     * @param diretorio o diretório dos segmentos.
+     * @throws IOException se não for possível abrir ou criar os segmentos.
+     */
+    public Diario(Path diretorio) throws IOException {
+        this(diretorio, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    /**
+     * Abre o diário armazenado no diretório informado, criando-o se necessário.
+     * Novos registros são gravados após o último registro válido do último segmento.
+     *
+     * @param diretorio        o diretório dos segmentos.
+     * @param tamanhoSegmento  o tamanho, em bytes, de cada segmento.
+     * @throws IOException se não for possível abrir ou criar os segmentos.
+     */
+    public Diario(Path diretorio, int tamanhoSegmento) throws IOException {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        Files.createDirectories(diretorio);
+
+        List<Long> segmentos = listarSegmentos();
+        this.indiceSegmento = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1);
+        this.segmento = mapear(indiceSegmento);
+        this.segmento.position(lerSegmento(segmento.duplicate(), null, null));
+        this.posicaoSincronizada = getPosicaoEscrita();
+    }
+
+    /**
+     * Registra uma movimentação no crédito de um jogador.
+     * @param idJogador  o ID do jogador.
+     * @param versao     a versão do jogador após a movimentação.
+     * @param centavos   o valor movimentado, em centavos (negativo para retiradas).
+     * @return a posição do fim do registro, a ser passada para {@link #sincronizar(long)}.
+     */
+    public synchronized long registrarCredito(int idJogador, long versao, long centavos) {
+        ByteBuffer r = iniciarRegistro(TIPO_CREDITO, 4 + 8 + 8);
+        r.putInt(idJogador).putLong(versao).putLong(centavos);
+        return concluirRegistro();
+    }
+
+    /**
+     * Registra uma movimentação nas fichas de um jogador.
+     * @param idJogador  o ID do jogador.
+     * @param versao     a versão do jogador após a movimentação.
+     * @param fichas     a quantidade de fichas movimentada (negativa para remoções).
+     * @return a posição do fim do registro, a ser passada para {@link #sincronizar(long)}.
+     */
+    public synchronized long registrarFichas(int idJogador, long versao, int fichas) {
+        ByteBuffer r = iniciarRegistro(TIPO_FICHAS, 4 + 8 + 4);
+        r.putInt(idJogador).putLong(versao).putInt(fichas);
+        return concluirRegistro();
+    }
+
+    /**
+     * Registra uma aposta já liquidada, com todos os seus jogos.
+     * As fichas movimentadas pela aposta são registradas à parte.
+     * @param idJogador  o ID do jogador.
+     * @param versao     a versão do jogador após a inclusão da aposta.
+     * @param aposta     a aposta liquidada.
+     * @return a posição do fim do registro, a ser passada para {@link #sincronizar(long)}.
+     */
+    public synchronized long registrarAposta(int idJogador, long versao, Aposta aposta) {
+        List<Jogo> jogos = aposta.getListaJogos();
+        ByteBuffer r = iniciarRegistro(TIPO_APOSTA_TIPADA, 4 + 8 + 4 + 1 + 4 + 2 + jogos.size() * (1 + 1 + 4));
+        r.putInt(idJogador).putLong(versao).putInt(aposta.getIdAposta()).put((byte) aposta.getNumeroSorteado()).putInt(aposta.getPremioTotal());
+        r.putShort((short) jogos.size());
+        for (Jogo jogo : jogos) {
+            r.put((byte) jogo.getTipo().ordinal()).put((byte) jogo.getAlvo()).putInt(jogo.getQtdFichas());
+        }
+        return concluirRegistro();
+    }
+
+    /**
+     * Lê todos os registros do diário, em ordem, e os aplica aos jogadores.
+     * Registros de jogadores desconhecidos são ignorados.
+     *
+     * @param jogadores  função que retorna o jogador de um ID, ou null se ele não existir.
+     * @return a quantidade de registros lidos.
+     * @throws IOException se não for possível ler os segmentos.
+     */
+    public long reproduzir(IntFunction<Jogador> jogadores) throws IOException {
+        return reproduzir(jogadores, 0);
+    }
+
+    /**
+     * Lê os registros do diário a partir de uma posição, em ordem, e os aplica
+     * aos jogadores. Registros de jogadores desconhecidos ou com versão já
+     * refletida no jogador são ignorados.
+     *
+     * @param jogadores  função que retorna o jogador de um ID, ou null se ele não existir.
+     * @param desde      a posição inicial, obtida de {@link #getPosicaoEscrita()}.
+     * @return a quantidade de registros lidos.
+     * @throws IOException se não for possível ler os segmentos.
+     */
+    public long reproduzir(IntFunction<Jogador> jogadores, long desde) throws IOException {
+        long[] qtdRegistros = new long[1];
+        long primeiroSegmento = desde / tamanhoSegmento;
+        for (long indice : listarSegmentos()) {
+            if (indice < primeiroSegmento) {
+                continue;
+            }
+            ByteBuffer buffer;
+            synchronized (this) {
+                buffer = (indice == indiceSegmento ? segmento : mapear(indice)).duplicate();
+            }
+            buffer.position(indice == primeiroSegmento ? (int) (desde % tamanhoSegmento) : 0);
+            lerSegmento(buffer, jogadores, qtdRegistros);
+        }
+        return qtdRegistros[0];
+    }
+
+    /**
+     * Apaga os segmentos que terminam antes da posição informada. Deve ser
+     * chamado apenas com a posição de um Instantaneo já gravado, pois os
+     * registros apagados não poderão mais ser reproduzidos.
+     *
+     * @param posicao a posição a partir da qual os registros ainda são necessários.
+     * @throws IOException se não for possível apagar algum segmento.
+     */
+    public void descartarAte(long posicao) throws IOException {
+        long primeiroNecessario = posicao / tamanhoSegmento;
+        for (long indice : listarSegmentos()) {
+            if (indice < primeiroNecessario && indice != getIndiceSegmento()) {
+                Files.deleteIfExists(diretorio.resolve(nomeSegmento(indice)));
+            }
+        }
+    }
+
+    /**
+     * Sincroniza os registros pendentes e fecha o diário.
+     */
+    @Override
+    public void close() {
+        sincronizar(getPosicaoEscrita());
+        synchronized (this) {
+            fechado = true;
+        }
+    }
+
+    /**
+     * Obtém a posição lógica (segmento e deslocamento) do fim do diário.
+     * @return a posição do fim do diário.
+     */
+    public synchronized long getPosicaoEscrita() {
+        return indiceSegmento * tamanhoSegmento + segmento.position();
+    }
+
+    /**
+     * Obtém o índice do segmento em que os registros estão sendo gravados.
+     */
+    private synchronized long getIndiceSegmento() {
+        return indiceSegmento;
+    }
+
+    /**
+     * Prepara o buffer temporário para um novo registro. Deve ser chamado
+     * com o monitor do objeto adquirido.
+     */
+    private ByteBuffer iniciarRegistro(byte tipo, int tamanhoDados) {
+        if (fechado) {
+            throw new IllegalStateException("O diário já foi fechado.");
+        }
+        int tamanhoTotal = TAMANHO_CABECALHO + tamanhoDados + TAMANHO_CRC;
+        if (tamanhoTotal > tamanhoSegmento) {
+            throw new IllegalArgumentException("Registro maior que o tamanho do segmento do diário.");
+        }
+        if (registro.capacity() < tamanhoTotal) {
+            registro = ByteBuffer.allocate(tamanhoTotal);
+        }
+        registro.clear();
+        registro.putInt(tamanhoDados).put(tipo).putLong(System.currentTimeMillis());
+        return registro;
+    }
+
+    /**
+     * Calcula o CRC do registro preparado e o copia para o segmento atual,
+     * abrindo um novo segmento se não houver espaço.
+     * @return a posição lógica do fim do registro.
+     */
+    private long concluirRegistro() {
+        crc.reset();
+        crc.update(registro.array(), 4, registro.position() - 4);
+        registro.putInt((int) crc.getValue());
+        registro.flip();
+
+        if (segmento.remaining() < registro.remaining()) {
+            trocarSegmento();
+        }
+        segmento.put(registro);
+        return getPosicaoEscrita();
+    }
+
+    /**
+     * Sincroniza o segmento cheio e abre o próximo.
+     */
+    private void trocarSegmento() {
+        try {
+            segmento.force();
+            segmento = mapear(indiceSegmento + 1);
+            indiceSegmento++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Garante que todos os registros até a posição informada foram gravados
+     * em disco. Quem adquire a trava sincroniza tudo o que já foi escrito, de
+     * modo que as threads que estavam esperando normalmente já encontram o seu
+     * registro sincronizado.
+     * @param posicao a posição devolvida por um dos métodos de registro.
+     */
+    public void sincronizar(long posicao) {
+        synchronized (travaSincronizacao) {
+            if (posicaoSincronizada >= posicao) {
+                return;
+            }
+
+            MappedByteBuffer alvo;
+            long inicioSegmento;
+            long fim;
+            synchronized (this) {
+                alvo = segmento;
+                inicioSegmento = indiceSegmento * tamanhoSegmento;
+                fim = getPosicaoEscrita();
+            }
+
+            // segmentos anteriores já foram sincronizados ao serem trocados.
+            int desde = (int) Math.max(0, posicaoSincronizada - inicioSegmento);
+            alvo.force(desde, (int) (fim - inicioSegmento) - desde);
+            posicaoSincronizada = fim;
+        }
+    }
+
+    /**
+     * Percorre os registros válidos de um segmento, aplicando-os aos jogadores
+     * quando a função de busca for informada.
+     * @return a posição do fim do último registro válido.
+     */
+    private static int lerSegmento(ByteBuffer buffer, IntFunction<Jogador> jogadores, long[] qtdRegistros) {
+        CRC32C crcLeitura = new CRC32C();
+        while (buffer.remaining() >= TAMANHO_CABECALHO + TAMANHO_CRC) {
+            int inicio = buffer.position();
+            int tamanhoDados = buffer.getInt(inicio);
+            int fim = inicio + TAMANHO_CABECALHO + tamanhoDados + TAMANHO_CRC;
+            if (tamanhoDados <= 0 || fim > buffer.limit()) {
+                return inicio;
+            }
+
+            // confere o CRC de tipo, instante e dados.
+            crcLeitura.reset();
+            ByteBuffer conteudo = buffer.duplicate();
+            conteudo.position(inicio + 4).limit(fim - TAMANHO_CRC);
+            crcLeitura.update(conteudo);
+            if ((int) crcLeitura.getValue() != buffer.getInt(fim - TAMANHO_CRC)) {
+                return inicio;
+            }
+
+            if (jogadores != null) {
+                buffer.position(inicio + 4);
+                aplicarRegistro(buffer, jogadores);
+                qtdRegistros[0]++;
+            }
+            buffer.position(fim);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Aplica um registro, com o buffer posicionado no seu tipo, ao jogador correspondente.
+     */
+    private static void aplicarRegistro(ByteBuffer buffer, IntFunction<Jogador> jogadores) {
+        byte tipo = buffer.get();
+        long instante = buffer.getLong();
+        Jogador jogador = jogadores.apply(buffer.getInt());
+
+        // ignora registros de jogadores desconhecidos ou já refletidos no jogador.
+        if (jogador == null || !jogador.avancarVersaoDiario(buffer.getLong())) {
+            return;
+        }
+
+        switch (tipo) {
+            case TIPO_CREDITO: {
+                long centavos = buffer.getLong();
+                jogador.aplicarCredito(centavos, instante);
+                break;
+            }
+            case TIPO_FICHAS: {
+                int fichas = buffer.getInt();
+                jogador.aplicarFichas(fichas);
+                break;
+            }
+            case TIPO_APOSTA:
+            case TIPO_APOSTA_TIPADA: {
+                int idAposta = buffer.getInt();
+                int numeroSorteado = buffer.get();
+                int premioTotal = buffer.getInt();
+                int qtdJogos = buffer.getShort();
+                ArrayList<Jogo> listaJogos = new ArrayList<Jogo>(qtdJogos);
+                for (int i = 0; i < qtdJogos; i++) {
+                    // os registros antigos têm apenas o índice da cor de cada jogo.
+                    TipoAposta tipoJogo = tipo == TIPO_APOSTA ? TipoAposta.COR : TipoAposta.doIndice(buffer.get());
+                    int alvo = buffer.get();
+                    listaJogos.add(Jogo.restaurar(tipoJogo, alvo, buffer.getInt()));
+                }
+                // garante que as próximas apostas não reutilizem o ID restaurado.
+                Aposta.reservarId(idAposta);
+                jogador.restaurarAposta(new Aposta(idAposta, numeroSorteado, premioTotal, listaJogos), instante);
+                break;
+            }
+            default:
+                // tipo desconhecido: o tamanho do registro permite ignorá-lo.
+                break;
+        }
+    }
+
+    /**
+     * Lista os índices dos segmentos existentes, em ordem crescente.
+     */
+    private List<Long> listarSegmentos() throws IOException {
+        List<Long> indices = new ArrayList<Long>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "diario-*.seg")) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                indices.add(Long.parseLong(nome.substring("diario-".length(), nome.length() - ".seg".length())));
+            }
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Mapeia em memória o segmento de índice informado, criando-o se necessário.
+     */
+    private MappedByteBuffer mapear(long indice) throws IOException {
+        Path arquivo = diretorio.resolve(nomeSegmento(indice));
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        }
+    }
+
+    /**
+     * Obtém o nome do arquivo do segmento de índice informado.
+     */
+    private static String nomeSegmento(long indice) {
+        return String.format("diario-%010d.seg", indice);
+    }
+
+}
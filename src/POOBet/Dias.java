@@ -0,0 +1,93 @@
+package POOBet;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * A classe Dias reúne métodos utilitários para datas representadas como o
+ * número de dias desde 01/01/1970 (o "epoch day" do java.time), no fuso
+ * horário do sistema. Um dia cabe em um int e as comparações e somas de
+ * dias são operações aritméticas simples, sem criar nenhum objeto.
+ * <p>
+ * O dia atual é calculado uma única vez por dia: o início e o fim do dia
+ * corrente ficam guardados, e enquanto o relógio estiver entre eles basta
+ * comparar System.currentTimeMillis() com esses limites.
+ */
+public class Dias {
+
+    private static volatile Intervalo atual = calcular(System.currentTimeMillis());
+
+    /**
+     * Obtém o dia atual.
+     * @return o dia atual, em dias desde 01/01/1970.
+     */
+    public static int hoje() {
+        return intervalo(System.currentTimeMillis()).dia;
+    }
+
+    /**
+     * Obtém o instante em que o dia atual termina.
+     * @return o início do próximo dia, em milissegundos desde 1970.
+     */
+    public static long fimDeHoje() {
+        return intervalo(System.currentTimeMillis()).fim;
+    }
+
+    /**
+     * Converte um instante para o dia em que ele acontece.
+     * @param milis o instante, em milissegundos desde 1970.
+     * @return o dia, em dias desde 01/01/1970.
+     */
+    public static int doInstante(long milis) {
+        Intervalo intervalo = atual;
+        if (milis >= intervalo.inicio && milis < intervalo.fim) {
+            return intervalo.dia;
+        }
+        return calcular(milis).dia;
+    }
+
+    /**
+     * Converte um dia para a data da sua meia-noite, no fuso horário do sistema.
+     * @param dia o dia, em dias desde 01/01/1970.
+     * @return a data do início do dia.
+     */
+    public static Date paraData(int dia) {
+        return Date.from(LocalDate.ofEpochDay(dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Intervalo intervalo(long agora) {
+        Intervalo intervalo = atual;
+        if (agora < intervalo.inicio || agora >= intervalo.fim) {
+            intervalo = calcular(agora);
+            atual = intervalo;
+        }
+        return intervalo;
+    }
+
+    private static Intervalo calcular(long milis) {
+        ZoneId fuso = ZoneId.systemDefault();
+        LocalDate data = Instant.ofEpochMilli(milis).atZone(fuso).toLocalDate();
+        long inicio = data.atStartOfDay(fuso).toInstant().toEpochMilli();
+        long fim = data.plusDays(1).atStartOfDay(fuso).toInstant().toEpochMilli();
+        return new Intervalo((int) data.toEpochDay(), inicio, fim);
+    }
+
+    /**
+     * Um dia e os instantes do seu início e do seu fim, publicados juntos.
+     */
+    private static class Intervalo {
+
+        final int dia;
+        final long inicio;
+        final long fim;
+
+        Intervalo(int dia, long inicio, long fim) {
+            this.dia = dia;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package POOBet;
+
+/**
+ * A classe Dinheiro reúne métodos utilitários para representar valores
+ * monetários em centavos, usando um long em ponto fixo. Dessa forma as
+ * operações de saldo são exatas e não acumulam erros de arredondamento
+ * como aconteceria com um double.
+ */
+public class Dinheiro {
+
+    /** Quantidade de centavos em uma unidade da moeda. */
+    public static final long CENTAVOS_POR_UNIDADE = 100;
+
+    /**
+     * Converte um valor digitado pelo usuário para centavos,
+     * arredondando para o centavo mais próximo.
+     *
+     * @param valor O valor na unidade da moeda (por exemplo, 10.5 para R$ 10,50).
+     * @return O valor correspondente em centavos.
+     */
+    public static long paraCentavos(double valor) {
+        return Math.round(valor * CENTAVOS_POR_UNIDADE);
+    }
+
+    /**
+     * Formata um valor em centavos no padrão brasileiro, com separador de
+     * milhar e duas casas decimais (por exemplo, 123456 vira "1.234,56").
+     *
+     * @param centavos O valor em centavos.
+     * @return O valor formatado.
+     */
+    public static String formatar(long centavos) {
+        StringBuilder sb = new StringBuilder(24);
+        if (centavos < 0) {
+            sb.append('-');
+        }
+
+        // usa o valor absoluto sem risco de overflow em Long.MIN_VALUE.
+        long unidades = Math.abs(centavos / CENTAVOS_POR_UNIDADE);
+        int resto = (int) Math.abs(centavos % CENTAVOS_POR_UNIDADE);
+
+        String inteiro = Long.toString(unidades);
+        int primeiroGrupo = inteiro.length() % 3;
+        if (primeiroGrupo == 0) {
+            primeiroGrupo = 3;
+        }
+        sb.append(inteiro, 0, primeiroGrupo);
+        for (int i = primeiroGrupo; i < inteiro.length(); i += 3) {
+            sb.append('.').append(inteiro, i, i + 3);
+        }
+
+        sb.append(',');
+        if (resto < 10) {
+            sb.append('0');
+        }
+        sb.append(resto);
+
+        return sb.toString();
+    }
+
+}
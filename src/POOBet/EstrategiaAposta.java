@@ -0,0 +1,66 @@
+package POOBet;
+
+/**
+ * A interface EstrategiaAposta representa uma forma de apostar usada pelo
+ * Simulador. A cada rodada a estratégia define quantas fichas serão
+ * apostadas em cada cor, podendo levar em conta o resultado da rodada anterior.
+ * <p>
+ * Uma estratégia pode guardar estado (por exemplo, o valor da última aposta),
+ * por isso cada thread do simulador usa a sua própria instância.
+ */
+public interface EstrategiaAposta {
+
+    /**
+     * Define a aposta da próxima rodada.
+     *
+     * @param fichasPorCor  vetor, indexado pelo ordinal da Cor,
+     *                      que deve ser preenchido com as fichas apostadas em cada cor.
+     * @param ganhouUltima  true se a rodada anterior teve prêmio; false na primeira rodada.
+     */
+    void definirAposta(int[] fichasPorCor, boolean ganhouUltima);
+
+    /**
+     * Cria uma estratégia que aposta sempre a mesma quantidade de fichas na mesma cor.
+     *
+     * @param cor     a cor apostada.
+     * @param fichas  a quantidade de fichas apostada por rodada.
+     * @return a estratégia criada.
+     */
+    static EstrategiaAposta apostaFixa(Cor cor, int fichas) {
+        int indiceCor = cor.ordinal();
+        return (fichasPorCor, ganhouUltima) -> fichasPorCor[indiceCor] = fichas;
+    }
+
+    /**
+     * Cria uma estratégia Martingale: começa com o valor inicial, dobra a aposta
+     * após cada derrota e volta ao valor inicial após uma vitória ou ao atingir
+     * o limite da mesa.
+     *
+     * @param cor             a cor apostada.
+     * @param fichasIniciais  a quantidade de fichas da primeira aposta.
+     * @param limite          a quantidade máxima de fichas por rodada.
+     * @return a estratégia criada.
+     */
+    static EstrategiaAposta martingale(Cor cor, int fichasIniciais, int limite) {
+        int indiceCor = cor.ordinal();
+        return new EstrategiaAposta() {
+            private int fichas = fichasIniciais;
+            private boolean primeiraRodada = true;
+
+            @Override
+            public void definirAposta(int[] fichasPorCor, boolean ganhouUltima) {
+                // na primeira rodada ainda não houve derrota, então não há o que dobrar.
+                if (primeiraRodada) {
+                    primeiraRodada = false;
+                    fichas = fichasIniciais;
+                } else if (ganhouUltima || fichas * 2 > limite) {
+                    fichas = fichasIniciais;
+                } else {
+                    fichas *= 2;
+                }
+                fichasPorCor[indiceCor] = fichas;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,113 @@
+package POOBet;
+
+/**
+ * A classe Evento é uma posição do buffer circular do BarramentoEventos.
+ * Os objetos são criados uma única vez, junto com o barramento, e
+ * reaproveitados a cada volta do buffer, então publicar um evento não cria
+ * nenhum objeto. Por isso um ouvinte deve copiar os valores que quiser
+ * guardar: depois que ele devolve o controle, a posição pode ser reescrita.
+ * <p>
+ * Os campos que não se aplicam ao tipo do evento valem zero.
+ *
+ * @see BarramentoEventos
+ * @see OuvinteEventos
+ */
+public class Evento {
+
+    TipoEvento tipo;
+    long instante;
+    int idJogador;
+    int idAposta;
+    int numeroSorteado;
+    int fichas;
+    int premio;
+    int qtdJogos;
+    long centavos;
+
+    Evento() {
+    }
+
+    /**
+     * Obtém o tipo do evento.
+     * @return o tipo do evento.
+     */
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtém o instante em que o evento foi publicado.
+     * @return o instante, em milissegundos desde 1970.
+     */
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * Obtém o ID do jogador do evento.
+     * @return o ID do jogador, ou 0 em RESULTADO_SORTEIO.
+     */
+    public int getIdJogador() {
+        return idJogador;
+    }
+
+    /**
+     * Obtém o ID da aposta do evento.
+     * @return o ID da aposta em APOSTA_REALIZADA e APOSTA_LIQUIDADA, ou 0 se a
+     *         aposta ainda não tiver ID (apostas feitas em uma MesaRoleta).
+     */
+    public int getIdAposta() {
+        return idAposta;
+    }
+
+    /**
+     * Obtém o número sorteado, em RESULTADO_SORTEIO e APOSTA_LIQUIDADA.
+     * @return o número sorteado.
+     */
+    public int getNumeroSorteado() {
+        return numeroSorteado;
+    }
+
+    /**
+     * Obtém as fichas do evento: as apostadas em APOSTA_REALIZADA e
+     * APOSTA_LIQUIDADA, e as convertidas em FICHAS_CONVERTIDAS (positivas
+     * quando o jogador compra fichas, negativas quando as converte em saldo).
+     * @return a quantidade de fichas.
+     */
+    public int getFichas() {
+        return fichas;
+    }
+
+    /**
+     * Obtém o prêmio pago, em fichas, em APOSTA_LIQUIDADA.
+     * @return o prêmio.
+     */
+    public int getPremio() {
+        return premio;
+    }
+
+    /**
+     * Obtém a quantidade de palpites (Jogo) da aposta, em APOSTA_REALIZADA e APOSTA_LIQUIDADA.
+     * @return a quantidade de jogos.
+     */
+    public int getQtdJogos() {
+        return qtdJogos;
+    }
+
+    /**
+     * Obtém o valor movimentado, em centavos: o depositado em CREDITO_ADICIONADO
+     * e o convertido em FICHAS_CONVERTIDAS.
+     * @return o valor, em centavos.
+     */
+    public long getCentavos() {
+        return centavos;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " instante=" + instante + " jogador=" + idJogador + " aposta=" + idAposta
+                + " numero=" + numeroSorteado + " fichas=" + fichas + " premio=" + premio
+                + " jogos=" + qtdJogos + " centavos=" + centavos;
+    }
+
+}
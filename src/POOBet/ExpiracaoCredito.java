@@ -0,0 +1,106 @@
+package POOBet;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * A classe ExpiracaoCredito expira os lotes de crédito dos jogadores cuja
+ * validade passou. Cada jogador é agendado em uma RodaExpiracao para o dia
+ * seguinte ao fim da validade de um lote, e na virada do dia todos os
+ * jogadores daquele dia são expirados de uma só vez.
+ * <p>
+ * Cada lote tem a sua própria validade, fixada no depósito; um depósito
+ * novo nunca adia a validade de um lote anterior. O depósito que cria um
+ * lote agenda a expiração dele, e cada expiração, assim como a associação
+ * do motor ao jogador, agenda a do novo lote mais antigo. Ao vencer, o
+ * jogador expira apenas os lotes cuja validade já passou; um agendamento
+ * repetido para o mesmo lote não expira nada. Como os depósitos do mesmo
+ * dia formam um único lote, um jogador é agendado por depósito no máximo
+ * uma vez por dia.
+ *
+ * @see RodaExpiracao
+ * @see Dias
+ */
+public class ExpiracaoCredito {
+
+    private final IntFunction<Jogador> buscarJogador;
+    private final RodaExpiracao roda;
+
+    // IDs vencidos no último avanço da roda, reaproveitado entre as viradas.
+    private int[] vencidos = new int[64];
+    private int qtdVencidos;
+
+    /**
+     * Cria o motor de expiração.
+     * @param buscarJogador busca um jogador pelo ID, por exemplo RegistroJogadores::buscarPorId.
+     */
+    public ExpiracaoCredito(IntFunction<Jogador> buscarJogador) {
+        this.buscarJogador = buscarJogador;
+        this.roda = new RodaExpiracao(Dias.hoje());
+    }
+
+    /**
+     * Agenda a expiração do crédito de um jogador.
+     * @param idJogador    o ID do jogador.
+     * @param diaValidade  o último dia de validade do crédito.
+     */
+    public void agendar(int idJogador, int diaValidade) {
+        synchronized (roda) {
+            roda.agendar(idJogador, diaValidade + 1);
+        }
+    }
+
+    /**
+     * Expira o crédito de todos os jogadores agendados até o dia informado.
+     * @param hoje o dia atual.
+     * @return o total expirado, em centavos.
+     */
+    public long expirar(int hoje) {
+        int[] ids;
+        synchronized (roda) {
+            qtdVencidos = 0;
+            roda.avancarAte(hoje, (id, dia) -> {
+                if (qtdVencidos == vencidos.length) {
+                    vencidos = Arrays.copyOf(vencidos, qtdVencidos * 2);
+                }
+                vencidos[qtdVencidos++] = id;
+            });
+            ids = Arrays.copyOf(vencidos, qtdVencidos);
+        }
+
+        // cada jogador é expirado sob a sua própria trava, fora da trava da roda: um depósito
+        // agenda a expiração com a trava do jogador adquirida, então as duas nunca são aninhadas.
+        long centavos = 0;
+        for (int id : ids) {
+            Jogador jogador = buscarJogador.apply(id);
+            if (jogador != null) {
+                centavos += jogador.expirarCredito(hoje);
+            }
+        }
+        return centavos;
+    }
+
+    /**
+     * Expira os créditos vencidos agora e a cada virada de dia.
+     * @param agendador o executor que roda as expirações.
+     */
+    public void iniciar(ScheduledExecutorService agendador) {
+        agendador.execute(() -> {
+            expirar(Dias.hoje());
+            agendador.schedule(() -> iniciar(agendador), Math.max(0, Dias.fimDeHoje() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Obtém a quantidade de agendamentos pendentes, incluindo os repetidos para um mesmo lote.
+     * @return a quantidade de agendamentos.
+     */
+    public long getQtdAgendados() {
+        synchronized (roda) {
+            return roda.getQtdAgendados();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package POOBet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A interface GeradorIds define a geração de identificadores únicos usada
+ * pelas classes Aposta, Jogo e Jogador. Cada classe tem o seu próprio
+ * gerador, que pode ser substituído (por exemplo, para manter os IDs únicos
+ * entre execuções do programa).
+ *
+ * @see GeradorIdsBlocos
+ */
+public interface GeradorIds {
+
+    /**
+     * Gera um novo identificador, diferente de todos os já gerados.
+     * @return o identificador gerado.
+     */
+    int proximoId();
+
+    /**
+     * Garante que o identificador informado, já utilizado (por exemplo, por uma
+     * aposta restaurada), não seja gerado novamente.
+     * @param idUtilizado o identificador já utilizado.
+     */
+    void reservarAte(int idUtilizado);
+
+    /**
+     * Cria um gerador mantido apenas em memória, que começa em 1.
+     * @return o gerador criado.
+     */
+    static GeradorIds emMemoria() {
+        return new GeradorIdsBlocos(1);
+    }
+
+    /**
+     * Cria um gerador que reserva os identificadores em um arquivo, de modo
+     * que continuem únicos depois que o programa for reiniciado.
+     * @param arquivo o arquivo onde as reservas são gravadas.
+     * @return o gerador criado.
+     * @throws IOException se não for possível ler ou criar o arquivo.
+     */
+    static GeradorIds comArquivo(Path arquivo) throws IOException {
+        return new GeradorIdsBlocos(arquivo);
+    }
+
+}
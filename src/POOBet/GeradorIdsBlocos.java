@@ -0,0 +1,121 @@
+package POOBet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A classe GeradorIdsBlocos gera identificadores distribuindo blocos de IDs
+ * para cada thread. Dentro do seu bloco, a thread gera IDs sem nenhuma
+ * sincronização; apenas a troca de bloco usa uma operação atômica, então
+ * várias threads criando apostas em paralelo não disputam o mesmo contador.
+ * <p>
+ * Quando associado a um arquivo, o gerador grava nele o limite dos IDs já
+ * reservados antes de entregá-los. Ao reiniciar, a geração continua a partir
+ * desse limite, e os IDs reservados e não utilizados são simplesmente pulados.
+ * <p>
+ * Um ID já utilizado, informado por {@link #reservarAte(int)}, também vale
+ * para os blocos já entregues: cada thread confere, a cada ID gerado, o menor
+ * ID ainda livre e pula a parte do seu bloco que ficou abaixo dele.
+ */
+public class GeradorIdsBlocos implements GeradorIds {
+
+    // quantidade de IDs entregue a cada thread por vez.
+    private static final int TAMANHO_BLOCO = 1024;
+
+    // quantidade de IDs reservada no arquivo a cada gravação.
+    private static final int TAMANHO_RESERVA = 1 << 20;
+
+    private final AtomicLong proximoBloco;
+
+    // todos os IDs abaixo deste já foram utilizados e não podem ser gerados, nem por um bloco já entregue.
+    private final AtomicLong menorIdLivre = new AtomicLong(Long.MIN_VALUE);
+    private final ThreadLocal<int[]> blocoDaThread = ThreadLocal.withInitial(() -> new int[2]);
+    private final Path arquivo;
+    private volatile long limiteReservado;
+
+    /**
+     * Cria um gerador mantido apenas em memória.
+     * @param primeiroId o primeiro identificador a ser gerado.
+     */
+    public GeradorIdsBlocos(int primeiroId) {
+        this.proximoBloco = new AtomicLong(primeiroId);
+        this.arquivo = null;
+        this.limiteReservado = Long.MAX_VALUE;
+    }
+
+    /**
+     * Cria um gerador que reserva os identificadores no arquivo informado,
+     * continuando a partir do limite gravado nele, se existir.
+     * @param arquivo o arquivo onde as reservas são gravadas.
+     * @throws IOException se não for possível ler o arquivo.
+     */
+    public GeradorIdsBlocos(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        long limite = 1;
+        if (Files.exists(arquivo)) {
+            limite = ByteBuffer.wrap(Files.readAllBytes(arquivo)).getLong();
+        } else if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        this.proximoBloco = new AtomicLong(limite);
+        this.limiteReservado = limite;
+    }
+
+    @Override
+    public int proximoId() {
+        // bloco[0] é o próximo ID da thread e bloco[1] é o fim (exclusivo) do seu bloco.
+        int[] bloco = blocoDaThread.get();
+        long minimo = menorIdLivre.get();
+        if (bloco[0] < minimo) {
+            bloco[0] = (int) Math.min(minimo, bloco[1]);
+        }
+        if (bloco[0] == bloco[1]) {
+            long inicio = proximoBloco.getAndAdd(TAMANHO_BLOCO);
+            long fim = inicio + TAMANHO_BLOCO;
+            if (fim > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Os identificadores disponíveis se esgotaram.");
+            }
+            reservar(fim);
+            bloco[0] = (int) inicio;
+            bloco[1] = (int) fim;
+        }
+        return bloco[0]++;
+    }
+
+    @Override
+    public void reservarAte(int idUtilizado) {
+        // os novos blocos começam depois do ID antes que os blocos já entregues passem a pulá-lo,
+        // então nenhuma chamada a proximoId iniciada depois do retorno o devolve.
+        proximoBloco.accumulateAndGet(idUtilizado + 1L, Math::max);
+        menorIdLivre.accumulateAndGet(idUtilizado + 1L, Math::max);
+    }
+
+    /**
+     * Garante que todos os IDs abaixo do limite informado estão reservados no arquivo.
+     */
+    private void reservar(long limite) {
+        if (limite <= limiteReservado) {
+            return;
+        }
+        synchronized (this) {
+            if (limite <= limiteReservado) {
+                return;
+            }
+            long novoLimite = limite + TAMANHO_RESERVA;
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                canal.write(ByteBuffer.allocate(8).putLong(0, novoLimite), 0);
+                canal.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            limiteReservado = novoLimite;
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package POOBet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A classe HistogramaLatencia registra durações, em nanossegundos, em faixas
+ * logarítmicas no estilo do HdrHistogram: cada potência de dois é dividida em
+ * 32 faixas iguais, então qualquer percentil é informado com erro relativo de
+ * no máximo cerca de 3%, ocupando memória fixa, sem guardar as amostras.
+ * <p>
+ * O registro não usa trava nenhuma: é um incremento atômico em uma faixa,
+ * mais uma soma em um LongAdder. Para que threads que medem a mesma operação
+ * não disputem a mesma faixa, as contagens são espalhadas em algumas cópias
+ * do vetor de faixas, escolhidas pela thread, e somadas apenas na leitura.
+ *
+ * @see Metricas
+ */
+public class HistogramaLatencia implements HistogramaLatenciaMBean {
+
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int QTD_SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    // durações acima de 2^36 ns (cerca de 68 s) são contadas na última faixa.
+    private static final int EXPOENTE_MAXIMO = 36;
+    private static final long VALOR_MAXIMO = (1L << EXPOENTE_MAXIMO) - 1;
+    private static final int QTD_FAIXAS = (EXPOENTE_MAXIMO - BITS_SUBFAIXA + 1) * QTD_SUBFAIXAS;
+
+    private static final int QTD_COPIAS = Math.min(8, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+    private final String nome;
+    private final AtomicLongArray[] copias = new AtomicLongArray[QTD_COPIAS];
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Cria um histograma vazio.
+     * @param nome o nome da operação medida.
+     */
+    public HistogramaLatencia(String nome) {
+        this.nome = nome;
+        for (int i = 0; i < QTD_COPIAS; i++) {
+            copias[i] = new AtomicLongArray(QTD_FAIXAS);
+        }
+    }
+
+    /**
+     * Registra a duração de uma operação.
+     * @param nanos a duração, em nanossegundos. Valores negativos são contados como zero.
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        int copia = (int) Thread.currentThread().getId() & (QTD_COPIAS - 1);
+        copias[copia].incrementAndGet(faixa(valor));
+        soma.add(valor);
+
+        long atual = maximo.get();
+        while (valor > atual && !maximo.compareAndSet(atual, valor)) {
+            atual = maximo.get();
+        }
+    }
+
+    /**
+     * Registra a duração de uma operação iniciada em um instante de System.nanoTime().
+     * @param inicio o valor de System.nanoTime() no início da operação.
+     */
+    public void registrarDesde(long inicio) {
+        registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Obtém o nome da operação medida.
+     * @return o nome do histograma.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public long getQtd() {
+        long qtd = 0;
+        for (AtomicLongArray faixas : copias) {
+            for (int i = 0; i < QTD_FAIXAS; i++) {
+                qtd += faixas.get(i);
+            }
+        }
+        return qtd;
+    }
+
+    @Override
+    public double getMediaMicros() {
+        long qtd = getQtd();
+        return qtd == 0 ? 0 : soma.sum() / 1000.0 / qtd;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return maximo.get() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getPercentil(50) / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getPercentil(90) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getPercentil(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getPercentil(99.9) / 1000.0;
+    }
+
+    /**
+     * Obtém um percentil das durações registradas. A leitura não para os
+     * registros concorrentes, então o resultado pode não incluir as amostras
+     * registradas durante a própria leitura.
+     * @param percentil o percentil desejado, entre 0 e 100.
+     * @return o maior valor da faixa que contém o percentil, em nanossegundos, ou 0 se não houver registros.
+     */
+    public long getPercentil(double percentil) {
+        long[] contagens = new long[QTD_FAIXAS];
+        long qtd = 0;
+        for (AtomicLongArray faixas : copias) {
+            for (int i = 0; i < QTD_FAIXAS; i++) {
+                long c = faixas.get(i);
+                contagens[i] += c;
+                qtd += c;
+            }
+        }
+        if (qtd == 0) {
+            return 0;
+        }
+
+        long alvo = Math.max(1, (long) Math.ceil(qtd * Math.min(100, Math.max(0, percentil)) / 100));
+        long acumulado = 0;
+        for (int i = 0; i < QTD_FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    @Override
+    public void zerar() {
+        for (AtomicLongArray faixas : copias) {
+            for (int i = 0; i < QTD_FAIXAS; i++) {
+                faixas.set(i, 0);
+            }
+        }
+        soma.reset();
+        maximo.set(0);
+    }
+
+    /**
+     * Calcula a faixa de um valor: valores menores que 32 têm uma faixa cada;
+     * a partir daí, cada potência de dois é dividida em 32 faixas.
+     */
+    static int faixa(long valor) {
+        long v = Math.min(valor, VALOR_MAXIMO);
+        if (v < QTD_SUBFAIXAS) {
+            return (int) v;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(v);
+        int grupo = expoente - BITS_SUBFAIXA + 1;
+        int subfaixa = (int) (v >>> (expoente - BITS_SUBFAIXA)) & (QTD_SUBFAIXAS - 1);
+        return grupo * QTD_SUBFAIXAS + subfaixa;
+    }
+
+    /**
+     * Calcula o maior valor contido em uma faixa.
+     */
+    static long limiteSuperior(int faixa) {
+        int grupo = faixa >>> BITS_SUBFAIXA;
+        long subfaixa = faixa & (QTD_SUBFAIXAS - 1);
+        if (grupo == 0) {
+            return subfaixa;
+        }
+        return ((QTD_SUBFAIXAS + subfaixa + 1) << (grupo - 1)) - 1;
+    }
+
+}
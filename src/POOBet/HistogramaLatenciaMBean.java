@@ -0,0 +1,33 @@
+package POOBet;
+
+/**
+ * Interface de gerenciamento (JMX) de um HistogramaLatencia.
+ * As durações são informadas em microssegundos.
+ */
+public interface HistogramaLatenciaMBean {
+
+    /** @return a quantidade de operações registradas. */
+    long getQtd();
+
+    /** @return a duração média. */
+    double getMediaMicros();
+
+    /** @return a maior duração registrada. */
+    double getMaximoMicros();
+
+    /** @return a mediana das durações. */
+    double getP50Micros();
+
+    /** @return o percentil 90 das durações. */
+    double getP90Micros();
+
+    /** @return o percentil 99 das durações. */
+    double getP99Micros();
+
+    /** @return o percentil 99,9 das durações. */
+    double getP999Micros();
+
+    /** Descarta todos os registros. */
+    void zerar();
+
+}
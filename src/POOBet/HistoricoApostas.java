@@ -0,0 +1,285 @@
+package POOBet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A classe HistoricoApostas guarda as apostas liquidadas de um jogador em
+ * colunas de tipos primitivos (ID, instante, número sorteado, fichas
+ * apostadas, prêmio e os palpites de cada aposta), em vez de manter um
+ * objeto Aposta, uma lista e um Jogo por palpite para cada registro.
+ * Cada aposta ocupa cerca de 25 bytes, mais 6 bytes por palpite.
+ * <p>
+ * O histórico só aceita inclusões, feitas por uma thread de cada vez (sob
+ * a trava do jogador). As linhas são guardadas em blocos de tamanho fixo,
+ * que nunca são copiados ao crescer; apenas o primeiro bloco começa pequeno
+ * e dobra de tamanho até o tamanho dos demais, para que jogadores com
+ * poucas apostas ocupem pouca memória. As linhas só ficam visíveis depois
+ * de completamente escritas; assim, a leitura pode acontecer ao mesmo tempo
+ * que as inclusões, sem trava: quem lê deve obter primeiro
+ * {@link #getQtdApostas()} e consultar apenas as linhas anteriores a ela.
+ */
+public class HistoricoApostas {
+
+    private static final int BITS_BLOCO = 10;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = TAMANHO_BLOCO - 1;
+    private static final int TAMANHO_PRIMEIRO_BLOCO = 8;
+
+    /**
+     * Um bloco de linhas do histórico. Os palpites das linhas do bloco ficam
+     * em vetores próprios, e cada linha guarda onde terminam os seus palpites.
+     */
+    private static class Bloco {
+        final int[] idAposta;
+        final long[] instante;
+        final byte[] numeroSorteado;
+        final int[] fichasApostadas;
+        final int[] premioTotal;
+        final int[] fimJogos;
+
+        // palpites das linhas do bloco: índice do palpite (ver TipoAposta.getIndice) e fichas.
+        // Os vetores são trocados ao crescer, enquanto outras threads leem; por isso são voláteis.
+        volatile short[] palpiteJogo;
+        volatile int[] fichasJogo;
+        int qtdJogos;
+
+        Bloco(int capacidade) {
+            idAposta = new int[capacidade];
+            instante = new long[capacidade];
+            numeroSorteado = new byte[capacidade];
+            fichasApostadas = new int[capacidade];
+            premioTotal = new int[capacidade];
+            fimJogos = new int[capacidade];
+            palpiteJogo = new short[capacidade];
+            fichasJogo = new int[capacidade];
+        }
+
+        /**
+         * Cria uma cópia do bloco com capacidade para mais linhas.
+         */
+        Bloco(Bloco anterior, int capacidade) {
+            idAposta = Arrays.copyOf(anterior.idAposta, capacidade);
+            instante = Arrays.copyOf(anterior.instante, capacidade);
+            numeroSorteado = Arrays.copyOf(anterior.numeroSorteado, capacidade);
+            fichasApostadas = Arrays.copyOf(anterior.fichasApostadas, capacidade);
+            premioTotal = Arrays.copyOf(anterior.premioTotal, capacidade);
+            fimJogos = Arrays.copyOf(anterior.fimJogos, capacidade);
+            palpiteJogo = Arrays.copyOf(anterior.palpiteJogo, Math.max(anterior.palpiteJogo.length, capacidade));
+            fichasJogo = Arrays.copyOf(anterior.fichasJogo, Math.max(anterior.fichasJogo.length, capacidade));
+            qtdJogos = anterior.qtdJogos;
+        }
+
+        int getCapacidade() {
+            return idAposta.length;
+        }
+
+        void incluirJogo(int palpite, int fichas) {
+            if (qtdJogos == palpiteJogo.length) {
+                palpiteJogo = Arrays.copyOf(palpiteJogo, qtdJogos * 2);
+                fichasJogo = Arrays.copyOf(fichasJogo, qtdJogos * 2);
+            }
+            palpiteJogo[qtdJogos] = (short) palpite;
+            fichasJogo[qtdJogos] = fichas;
+            qtdJogos++;
+        }
+    }
+
+    private volatile Bloco[] blocos = new Bloco[4];
+    private volatile int qtdApostas;
+
+    /**
+     * Inclui no histórico uma aposta liquidada.
+     * @param aposta    a aposta liquidada.
+     * @param instante  o instante da liquidação, em milissegundos desde 1970.
+     */
+    synchronized void incluir(Aposta aposta, long instante) {
+        Bloco bloco = prepararLinha();
+        int linha = qtdApostas & MASCARA_BLOCO;
+        int fichasApostadas = 0;
+        for (Jogo jogo : aposta.getListaJogos()) {
+            bloco.incluirJogo(jogo.getTipo().getIndice(jogo.getAlvo()), jogo.getQtdFichas());
+            fichasApostadas += jogo.getQtdFichas();
+        }
+        escreverLinha(bloco, linha, aposta.getIdAposta(), instante, aposta.getNumeroSorteado(), fichasApostadas, aposta.getPremioTotal());
+    }
+
+    /**
+     * Inclui no histórico uma aposta já liquidada, a partir dos seus dados.
+     * @param idAposta        o ID da aposta.
+     * @param instante        o instante da liquidação, em milissegundos desde 1970.
+     * @param numeroSorteado  o número sorteado.
+     * @param premioTotal     o prêmio total pago.
+     * @param palpites        o índice de cada palpite da aposta (ver TipoAposta.getIndice).
+     * @param fichas          as fichas apostadas em cada palpite.
+     */
+    synchronized void incluir(int idAposta, long instante, int numeroSorteado, int premioTotal, int[] palpites, int[] fichas) {
+        Bloco bloco = prepararLinha();
+        int linha = qtdApostas & MASCARA_BLOCO;
+        int fichasApostadas = 0;
+        for (int i = 0; i < palpites.length; i++) {
+            bloco.incluirJogo(palpites[i], fichas[i]);
+            fichasApostadas += fichas[i];
+        }
+        escreverLinha(bloco, linha, idAposta, instante, numeroSorteado, fichasApostadas, premioTotal);
+    }
+
+    /**
+     * Obtém o bloco onde a próxima linha será escrita, criando-o se necessário.
+     * O primeiro bloco é substituído por uma cópia com o dobro da capacidade
+     * quando enche, até chegar ao tamanho dos demais; a cópia é publicada em
+     * um novo vetor de blocos, para que quem lê sem trava a veja completa.
+     */
+    private Bloco prepararLinha() {
+        int indiceBloco = qtdApostas >>> BITS_BLOCO;
+        Bloco[] atuais = blocos;
+        if (indiceBloco == atuais.length) {
+            atuais = Arrays.copyOf(atuais, atuais.length * 2);
+            blocos = atuais;
+        }
+        Bloco bloco = atuais[indiceBloco];
+        if (bloco == null) {
+            bloco = new Bloco(indiceBloco == 0 ? TAMANHO_PRIMEIRO_BLOCO : TAMANHO_BLOCO);
+            atuais[indiceBloco] = bloco;
+        } else if (indiceBloco == 0 && qtdApostas == bloco.getCapacidade()) {
+            bloco = new Bloco(bloco, bloco.getCapacidade() * 2);
+            Bloco[] novos = atuais.clone();
+            novos[0] = bloco;
+            blocos = novos;
+        }
+        return bloco;
+    }
+
+    /**
+     * Escreve as colunas de uma linha e a torna visível para a leitura.
+     */
+    private void escreverLinha(Bloco bloco, int linha, int idAposta, long instante, int numeroSorteado, int fichasApostadas, int premioTotal) {
+        bloco.idAposta[linha] = idAposta;
+        bloco.instante[linha] = instante;
+        bloco.numeroSorteado[linha] = (byte) numeroSorteado;
+        bloco.fichasApostadas[linha] = fichasApostadas;
+        bloco.premioTotal[linha] = premioTotal;
+        bloco.fimJogos[linha] = bloco.qtdJogos;
+        qtdApostas++;
+    }
+
+    private Bloco bloco(int linha) {
+        return blocos[linha >>> BITS_BLOCO];
+    }
+
+    /**
+     * Obtém a quantidade de apostas do histórico.
+     * @return a quantidade de apostas.
+     */
+    public int getQtdApostas() {
+        return qtdApostas;
+    }
+
+    /**
+     * Obtém o ID de uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return o ID da aposta.
+     */
+    public int getIdAposta(int linha) {
+        return bloco(linha).idAposta[linha & MASCARA_BLOCO];
+    }
+
+    /**
+     * Obtém o instante da liquidação de uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return o instante, em milissegundos desde 1970, ou 0 se for desconhecido.
+     */
+    public long getInstante(int linha) {
+        return bloco(linha).instante[linha & MASCARA_BLOCO];
+    }
+
+    /**
+     * Obtém o número sorteado em uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return o número sorteado.
+     */
+    public int getNumeroSorteado(int linha) {
+        return bloco(linha).numeroSorteado[linha & MASCARA_BLOCO];
+    }
+
+    /**
+     * Obtém a cor sorteada em uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return a cor sorteada.
+     */
+    public Cor getCorSorteada(int linha) {
+        return Cor.doNumero(getNumeroSorteado(linha));
+    }
+
+    /**
+     * Obtém o total de fichas apostadas em uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return o total de fichas apostadas.
+     */
+    public int getFichasApostadas(int linha) {
+        return bloco(linha).fichasApostadas[linha & MASCARA_BLOCO];
+    }
+
+    /**
+     * Obtém o prêmio total de uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return o prêmio total, em fichas.
+     */
+    public int getPremioTotal(int linha) {
+        return bloco(linha).premioTotal[linha & MASCARA_BLOCO];
+    }
+
+    /**
+     * Reconstrói uma aposta do histórico como um objeto Aposta, com os seus palpites.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return a aposta reconstruída.
+     */
+    public Aposta getAposta(int linha) {
+        int qtdJogos = getQtdJogos(linha);
+        ArrayList<Jogo> listaJogos = new ArrayList<Jogo>(qtdJogos);
+        for (int jogo = 0; jogo < qtdJogos; jogo++) {
+            int palpite = getPalpiteJogo(linha, jogo);
+            listaJogos.add(Jogo.restaurar(TipoAposta.doPalpite(palpite), TipoAposta.getAlvoDoPalpite(palpite), getFichasJogo(linha, jogo)));
+        }
+        return new Aposta(getIdAposta(linha), getNumeroSorteado(linha), getPremioTotal(linha), listaJogos);
+    }
+
+    /**
+     * Obtém a quantidade de palpites de uma aposta do histórico.
+     * @param linha a posição da aposta, em ordem de inclusão.
+     * @return a quantidade de palpites.
+     */
+    public int getQtdJogos(int linha) {
+        return getFimJogos(linha) - getInicioJogos(linha);
+    }
+
+    /**
+     * Obtém o índice de um palpite de uma aposta do histórico.
+     * @param linha  a posição da aposta, em ordem de inclusão.
+     * @param jogo   a posição do palpite na aposta.
+     * @return o índice do palpite (ver TipoAposta.getIndice).
+     */
+    public int getPalpiteJogo(int linha, int jogo) {
+        return bloco(linha).palpiteJogo[getInicioJogos(linha) + jogo];
+    }
+
+    /**
+     * Obtém as fichas apostadas em um palpite de uma aposta do histórico.
+     * @param linha  a posição da aposta, em ordem de inclusão.
+     * @param jogo   a posição do palpite na aposta.
+     * @return as fichas apostadas no palpite.
+     */
+    public int getFichasJogo(int linha, int jogo) {
+        return bloco(linha).fichasJogo[getInicioJogos(linha) + jogo];
+    }
+
+    private int getInicioJogos(int linha) {
+        int posicao = linha & MASCARA_BLOCO;
+        return posicao == 0 ? 0 : bloco(linha).fimJogos[posicao - 1];
+    }
+
+    private int getFimJogos(int linha) {
+        return bloco(linha).fimJogos[linha & MASCARA_BLOCO];
+    }
+
+}
@@ -0,0 +1,157 @@
+package POOBet;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A classe ImagemFundo carrega a imagem de fundo do MenuGUI a partir do
+ * classpath (funcionando também dentro do jar) e a redimensiona para o
+ * tamanho da tela.
+ * <p>
+ * A imagem já redimensionada é guardada em um arquivo de cache, um por
+ * tamanho de tela, com os pixels sem compressão. Nas próximas execuções,
+ * os pixels são lidos diretamente para a imagem, sem decodificar o JPEG
+ * nem redimensionar. O cache é descartado se o recurso original mudar de
+ * tamanho ou de data.
+ */
+public class ImagemFundo {
+
+    // "POOI" em ASCII, seguido da versão do formato.
+    private static final int ASSINATURA = 0x504F4F49;
+    private static final int VERSAO_FORMATO = 1;
+    private static final int TAMANHO_CABECALHO = 4 + 4 + 4 + 4 + 8 + 8;
+
+    /**
+     * Carrega a imagem de fundo no tamanho informado, usando o cache se possível.
+     *
+     * @param recurso         o nome do recurso no classpath, por exemplo "resources/background.jpg".
+     * @param tamanho         o tamanho final da imagem.
+     * @param diretorioCache  o diretório do cache, ou null para não usar cache.
+     * @return a imagem redimensionada.
+     * @throws IOException se o recurso não existir ou não puder ser lido.
+     */
+    public static BufferedImage carregar(String recurso, Dimension tamanho, Path diretorioCache) throws IOException {
+        URL url = ImagemFundo.class.getClassLoader().getResource(recurso);
+        if (url == null) {
+            throw new IOException("O recurso " + recurso + " não foi encontrado no classpath.");
+        }
+        URLConnection conexao = url.openConnection();
+        long dataRecurso = conexao.getLastModified();
+        long tamanhoRecurso = conexao.getContentLengthLong();
+
+        Path arquivoCache = null;
+        if (diretorioCache != null) {
+            String nome = recurso.replaceAll("[^A-Za-z0-9]", "_") + "-" + tamanho.width + "x" + tamanho.height + ".cache";
+            arquivoCache = diretorioCache.resolve(nome);
+            BufferedImage imagem = lerCache(arquivoCache, tamanho, dataRecurso, tamanhoRecurso);
+            if (imagem != null) {
+                return imagem;
+            }
+        }
+
+        BufferedImage original;
+        try (InputStream in = conexao.getInputStream()) {
+            original = ImageIO.read(in);
+        }
+        if (original == null) {
+            throw new IOException("O recurso " + recurso + " não é uma imagem válida.");
+        }
+        BufferedImage imagem = redimensionar(original, tamanho);
+
+        if (arquivoCache != null) {
+            try {
+                gravarCache(arquivoCache, imagem, dataRecurso, tamanhoRecurso);
+            } catch (IOException e) {
+                // sem cache a imagem só será decodificada de novo na próxima execução.
+            }
+        }
+        return imagem;
+    }
+
+    /**
+     * Redimensiona a imagem de uma só vez, com interpolação bilinear, para
+     * uma imagem com os pixels no mesmo formato usado pelo cache.
+     */
+    private static BufferedImage redimensionar(BufferedImage original, Dimension tamanho) {
+        BufferedImage imagem = new BufferedImage(tamanho.width, tamanho.height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = imagem.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(original, 0, 0, tamanho.width, tamanho.height, null);
+        } finally {
+            g.dispose();
+        }
+        return imagem;
+    }
+
+    /**
+     * Lê a imagem do cache, se ele existir e corresponder ao recurso e ao tamanho.
+     * @return a imagem lida, ou null se o cache não puder ser usado.
+     */
+    private static BufferedImage lerCache(Path arquivo, Dimension tamanho, long dataRecurso, long tamanhoRecurso) {
+        if (!Files.isRegularFile(arquivo)) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) >= 0) {
+                // lê o cabeçalho inteiro.
+            }
+            cabecalho.flip();
+            if (cabecalho.remaining() < TAMANHO_CABECALHO
+                    || cabecalho.getInt() != ASSINATURA || cabecalho.getInt() != VERSAO_FORMATO
+                    || cabecalho.getInt() != tamanho.width || cabecalho.getInt() != tamanho.height
+                    || cabecalho.getLong() != dataRecurso || cabecalho.getLong() != tamanhoRecurso) {
+                return null;
+            }
+
+            // os pixels são lidos diretamente para o vetor da imagem.
+            BufferedImage imagem = new BufferedImage(tamanho.width, tamanho.height, BufferedImage.TYPE_3BYTE_BGR);
+            byte[] pixels = ((DataBufferByte) imagem.getRaster().getDataBuffer()).getData();
+            ByteBuffer destino = ByteBuffer.wrap(pixels);
+            while (destino.hasRemaining()) {
+                if (canal.read(destino) < 0) {
+                    return null;
+                }
+            }
+            return imagem;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Grava a imagem no cache, por meio de um arquivo temporário renomeado
+     * ao final, para que um cache incompleto nunca seja lido.
+     */
+    private static void gravarCache(Path arquivo, BufferedImage imagem, long dataRecurso, long tamanhoRecurso) throws IOException {
+        Files.createDirectories(arquivo.getParent());
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            cabecalho.putInt(ASSINATURA).putInt(VERSAO_FORMATO).putInt(imagem.getWidth()).putInt(imagem.getHeight());
+            cabecalho.putLong(dataRecurso).putLong(tamanhoRecurso).flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho);
+            }
+            ByteBuffer pixels = ByteBuffer.wrap(((DataBufferByte) imagem.getRaster().getDataBuffer()).getData());
+            while (pixels.hasRemaining()) {
+                canal.write(pixels);
+            }
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
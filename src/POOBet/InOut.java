@@ -2,6 +2,9 @@ package POOBet;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * A classe leDadosWin permite a leitura de dados de tipos nativos e de 
@@ -27,8 +30,7 @@ public class InOut {
     public static String leString (String frase){
         String Entrada;
 
-        Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                JOptionPane.QUESTION_MESSAGE);
+        Entrada = entradaNaInterface(frase);
         return Entrada;
     }
 
@@ -51,13 +53,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Byte.parseByte(Entrada);
                 ERRO = false;
             }
             catch(NumberFormatException e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "BYTE", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -83,13 +84,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Short.parseShort(Entrada);
                 ERRO = false;
             }
             catch(NumberFormatException e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "SHORT", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -115,13 +115,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Integer.parseInt(Entrada);
                 ERRO = false;
             }
             catch(Exception e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "INTEIRO ", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -147,13 +146,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Long.parseLong(Entrada);
                 ERRO = false;
             }
             catch(Exception e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "LONG ", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -179,13 +177,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Float.parseFloat(Entrada);
                 ERRO = false;
             }
             catch(Exception e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "FLOAT", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -211,13 +208,12 @@ public class InOut {
 
         do{
             try{
-                Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                        JOptionPane.QUESTION_MESSAGE);
+                Entrada = entradaNaInterface(frase);
                 num = Double.parseDouble(Entrada);
                 ERRO = false;
             }
             catch(Exception e){
-                JOptionPane.showMessageDialog(null, "VALOR DEVE SER UM NUMERO DO TIPO " +
+                mensagemNaInterface("VALOR DEVE SER UM NUMERO DO TIPO " +
                                 "DOUBLE", "   >>>      ERRO     <<<",
                         JOptionPane.ERROR_MESSAGE);
                 ERRO = true;
@@ -240,8 +236,7 @@ public class InOut {
         boolean ERRO;
 
         do{
-            Entrada = JOptionPane.showInputDialog (null, frase, "Entrada de dados",
-                    JOptionPane.QUESTION_MESSAGE);
+            Entrada = entradaNaInterface(frase);
             if (Entrada.length()!= 0)
                 ERRO = false;
             else
@@ -264,7 +259,7 @@ public class InOut {
      */
     public static int leOpcoes(String cabecalho, String frase, String[] opcoes) {
 
-        return JOptionPane.showOptionDialog(null, frase, cabecalho,JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opcoes, opcoes[0]);
+        return naInterface(() -> JOptionPane.showOptionDialog(null, frase, cabecalho,JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opcoes, opcoes[0]));
     }
 
     /**
@@ -275,7 +270,7 @@ public class InOut {
      * @param frase     que aparecera dentro da caixa de mensagem
      */
     public static void MsgDeErro(String cabecalho, String frase){
-        JOptionPane.showMessageDialog(null, frase, cabecalho,  JOptionPane.ERROR_MESSAGE);
+        mensagemNaInterface(frase, cabecalho,  JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -286,7 +281,7 @@ public class InOut {
      * @param frase     que aparecera dentro da caixa de mensagem
      */
     public static void MsgDeInformacao(String cabecalho, String frase){
-        JOptionPane.showMessageDialog(null, frase, cabecalho,
+        mensagemNaInterface(frase, cabecalho,
                 JOptionPane.INFORMATION_MESSAGE);
     }
 
@@ -297,7 +292,7 @@ public class InOut {
      * @param frase     que aparecera dentro da caixa de mensagem
      */
     public static void MsgSemIcone(String cabecalho, String frase){
-        JOptionPane.showMessageDialog(null, frase, cabecalho,
+        mensagemNaInterface(frase, cabecalho,
                 JOptionPane.PLAIN_MESSAGE);
     }
 
@@ -309,7 +304,7 @@ public class InOut {
      * @param frase     que aparecera dentro da caixa de mensagem
      */
     public static void MsgDeAviso (String cabecalho, String frase){
-        JOptionPane.showMessageDialog(null, frase, cabecalho,
+        mensagemNaInterface(frase, cabecalho,
                 JOptionPane.WARNING_MESSAGE);
     }
 
@@ -322,25 +317,81 @@ public class InOut {
     public static void ExibeTabela(String cabecalho, String[] cabecalhosTabela, Object[][] dados) {
 
         try {
-            JDialog dialog = new JDialog();
-            dialog.setTitle(cabecalho);
-            dialog.setModal(true);
+            executarNaInterface(() -> {
+                JDialog dialog = new JDialog();
+                dialog.setTitle(cabecalho);
+                dialog.setModal(true);
 
-            DefaultTableModel model = new DefaultTableModel(dados, cabecalhosTabela);
-            JTable table = new JTable(model);
+                DefaultTableModel model = new DefaultTableModel(dados, cabecalhosTabela);
+                JTable table = new JTable(model);
 
-            JScrollPane scrollPane = new JScrollPane(table);
-            dialog.add(scrollPane);
+                JScrollPane scrollPane = new JScrollPane(table);
+                dialog.add(scrollPane);
 
-            dialog.setSize(300, 200);
-            dialog.setLocationRelativeTo(null);
-            dialog.setVisible(true);
+                dialog.setSize(300, 200);
+                dialog.setLocationRelativeTo(null);
+                dialog.setVisible(true);
+            });
         } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Erro ao exibir tabela. " + e.getMessage(), "   >>>      ERRO     <<<", JOptionPane.ERROR_MESSAGE);
+            mensagemNaInterface("Erro ao exibir tabela. " + e.getMessage(), "   >>>      ERRO     <<<", JOptionPane.ERROR_MESSAGE);
         }
 
     }
 
+    /**
+     * Este método executa uma ação na thread de eventos do Swing e espera
+     * que ela termine. Se a thread atual já for a de eventos, a ação é
+     * executada diretamente. Assim, os métodos desta classe podem ser
+     * chamados de qualquer thread, como as que executam as ações do MenuGUI.
+     *
+     * @param acao a ação que usa componentes do Swing.
+     */
+    public static void executarNaInterface(Runnable acao) {
+        naInterface(() -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa uma ação na thread de eventos do Swing, esperando o seu resultado.
+     */
+    private static <T> T naInterface(Supplier<T> acao) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            return acao.get();
+        }
+        AtomicReference<T> resultado = new AtomicReference<T>();
+        try {
+            SwingUtilities.invokeAndWait(() -> resultado.set(acao.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A espera pela interface foi interrompida.", e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return resultado.get();
+    }
+
+    /**
+     * Exibe uma caixa de entrada de texto na thread de eventos do Swing.
+     */
+    private static String entradaNaInterface(String frase) {
+        return naInterface(() -> JOptionPane.showInputDialog(null, frase, "Entrada de dados", JOptionPane.QUESTION_MESSAGE));
+    }
+
+    /**
+     * Exibe uma mensagem na thread de eventos do Swing.
+     */
+    private static void mensagemNaInterface(Object mensagem, String titulo, int tipo) {
+        executarNaInterface(() -> JOptionPane.showMessageDialog(null, mensagem, titulo, tipo));
+    }
+
     public static void main(String [] args){
 
 
@@ -0,0 +1,282 @@
+package POOBet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A classe Instantaneo grava e carrega uma cópia binária compacta do estado
+ * de todos os jogadores: fichas, lotes de crédito com as suas validades e a
+ * quantidade de apostas. Ao iniciar, o programa carrega o último instantâneo
+ * e reproduz apenas a parte do Diario gravada depois dele.
+ * <p>
+ * As apostas ficam no ArquivoHistorico de cada jogador, e o instantâneo
+ * guarda apenas o tamanho válido desse arquivo; assim, nem a gravação do
+ * instantâneo nem o reinício crescem com o histórico de apostas. Apenas os
+ * jogadores sem arquivo de histórico têm as apostas copiadas no instantâneo.
+ * <p>
+ * O instantâneo é gravado sem pausar as apostas: o estado de cada jogador é
+ * capturado sob a sua própria trava, por um instante, junto com a sua versão
+ * no diário. Registros do diário com versão já capturada são ignorados na
+ * reprodução.
+ */
+public class Instantaneo {
+
+    // "POOB" em ASCII, seguido da versão do formato.
+    private static final int ASSINATURA = 0x504F4F42;
+    private static final int VERSAO_FORMATO = 5;
+
+    // versões anteriores, ainda lidas: a 1 tinha jogos apenas em cores, a 1 e
+    // a 2 não guardavam o instante das apostas, até a 3 o crédito tinha uma
+    // única validade em vez de lotes, e até a 4 todas as apostas eram copiadas
+    // no instantâneo.
+    private static final int VERSAO_FORMATO_CORES = 1;
+    private static final int VERSAO_FORMATO_SEM_INSTANTE = 2;
+    private static final int VERSAO_FORMATO_SEM_LOTES = 3;
+    private static final int VERSAO_FORMATO_SEM_ARQUIVO_HISTORICO = 4;
+
+    /** Tamanho do histórico que indica que as apostas estão no próprio instantâneo. */
+    static final long HISTORICO_NO_INSTANTANEO = -1;
+
+    /**
+     * Estado de um jogador capturado para o instantâneo.
+     */
+    static class EstadoJogador {
+        int idJogador;
+        long versaoDiario;
+        int qtdFicha;
+        long saldoCentavos;
+        long[] valoresLotes;
+        int[] diasLotes;
+        int qtdApostas;
+        int maiorIdAposta;
+        long tamanhoHistorico;
+        // apenas quando as apostas estão no próprio instantâneo.
+        HistoricoApostas historico;
+    }
+
+    /**
+     * Grava o instantâneo de todos os jogadores. O arquivo de histórico de
+     * cada jogador é forçado para o disco logo após a captura do seu estado.
+     * O instantâneo é escrito em um arquivo temporário, forçado para o disco
+     * e só então renomeado, para que um instantâneo incompleto nunca
+     * substitua o anterior; depois da troca, o diretório também é forçado.
+     * Assim, quando o método retorna, o diário anterior à posição devolvida
+     * já pode ser descartado com segurança.
+     *
+     * @param arquivo    o arquivo do instantâneo.
+     * @param diario     o diário em uso, ou null se não houver.
+     * @param jogadores  os jogadores a serem gravados.
+     * @return a posição do diário a partir da qual os registros ainda são necessários.
+     * @throws IOException se não for possível gravar o arquivo.
+     */
+    public static long gravar(Path arquivo, Diario diario, Collection<Jogador> jogadores) throws IOException {
+        // a posição é lida antes da captura: tudo o que foi registrado antes dela já está no estado capturado.
+        long posicaoDiario = diario != null ? diario.getPosicaoEscrita() : 0;
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checado = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checado);
+            out.writeInt(ASSINATURA);
+            out.writeInt(VERSAO_FORMATO);
+            out.writeLong(posicaoDiario);
+
+            for (Jogador jogador : jogadores) {
+                out.writeBoolean(true);
+                EstadoJogador estado = jogador.capturarEstado();
+                jogador.sincronizarHistorico();
+                escreverJogador(out, estado);
+            }
+            out.writeBoolean(false);
+            out.writeInt((int) checado.getChecksum().getValue());
+            out.flush();
+            canal.force(true);
+        }
+
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDiretorio(arquivo.toAbsolutePath().getParent());
+        return posicaoDiario;
+    }
+
+    /**
+     * Força para o disco as entradas de um diretório, para que um arquivo
+     * criado ou renomeado nele sobreviva a uma queda do sistema. Em sistemas
+     * que não permitem abrir diretórios (como o Windows), não faz nada.
+     *
+     * @param diretorio o diretório.
+     */
+    static void sincronizarDiretorio(Path diretorio) {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // o sistema não permite sincronizar diretórios; a renomeação já é atômica.
+        }
+    }
+
+    /**
+     * Carrega um instantâneo, restaurando o estado dos jogadores existentes.
+     * Jogadores desconhecidos são ignorados, mas os IDs das suas apostas
+     * continuam reservados. Os arquivos de histórico devem ser associados
+     * aos jogadores antes da carga.
+     *
+     * @param arquivo    o arquivo do instantâneo.
+     * @param jogadores  função que retorna o jogador de um ID, ou null se ele não existir.
+     * @return a posição do diário a partir da qual a reprodução deve continuar,
+     *         ou 0 se o arquivo não existir.
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido.
+     */
+    public static long carregar(Path arquivo, IntFunction<Jogador> jogadores) throws IOException {
+        CheckedInputStream checado;
+        try {
+            checado = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16), new CRC32C());
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(checado)) {
+            if (in.readInt() != ASSINATURA) {
+                throw new IOException("O arquivo " + arquivo + " não é um instantâneo válido.");
+            }
+            int versaoFormato = in.readInt();
+            if (versaoFormato < VERSAO_FORMATO_CORES || versaoFormato > VERSAO_FORMATO) {
+                throw new IOException("O arquivo " + arquivo + " não é um instantâneo válido.");
+            }
+            long posicaoDiario = in.readLong();
+
+            // os estados só são aplicados depois de conferir o CRC do arquivo inteiro.
+            HashMap<Jogador, EstadoJogador> estados = new HashMap<Jogador, EstadoJogador>();
+            int maiorIdAposta = 0;
+            while (in.readBoolean()) {
+                EstadoJogador estado = lerJogador(in, versaoFormato);
+                maiorIdAposta = Math.max(maiorIdAposta, estado.maiorIdAposta);
+                Jogador jogador = jogadores.apply(estado.idJogador);
+                if (jogador != null) {
+                    estados.put(jogador, estado);
+                }
+            }
+
+            int crcCalculado = (int) checado.getChecksum().getValue();
+            if (in.readInt() != crcCalculado) {
+                throw new IOException("O instantâneo " + arquivo + " está corrompido.");
+            }
+
+            if (maiorIdAposta > 0) {
+                Aposta.reservarId(maiorIdAposta);
+            }
+            for (Map.Entry<Jogador, EstadoJogador> entry : estados.entrySet()) {
+                entry.getKey().restaurarEstado(entry.getValue());
+            }
+            return posicaoDiario;
+        }
+    }
+
+    /**
+     * Escreve o estado de um jogador no formato binário do instantâneo.
+     */
+    private static void escreverJogador(DataOutputStream out, EstadoJogador estado) throws IOException {
+        out.writeInt(estado.idJogador);
+        out.writeLong(estado.versaoDiario);
+        out.writeInt(estado.qtdFicha);
+        out.writeLong(estado.saldoCentavos);
+        out.writeInt(estado.valoresLotes.length);
+        for (int i = 0; i < estado.valoresLotes.length; i++) {
+            out.writeLong(estado.valoresLotes[i]);
+            out.writeInt(estado.diasLotes[i]);
+        }
+        out.writeInt(estado.qtdApostas);
+        out.writeInt(estado.maiorIdAposta);
+        out.writeLong(estado.tamanhoHistorico);
+        if (estado.tamanhoHistorico != HISTORICO_NO_INSTANTANEO) {
+            return;
+        }
+        HistoricoApostas historico = estado.historico;
+        for (int linha = 0; linha < estado.qtdApostas; linha++) {
+            out.writeInt(historico.getIdAposta(linha));
+            out.writeLong(historico.getInstante(linha));
+            out.writeByte(historico.getNumeroSorteado(linha));
+            out.writeInt(historico.getPremioTotal(linha));
+            int qtdJogos = historico.getQtdJogos(linha);
+            out.writeShort(qtdJogos);
+            for (int jogo = 0; jogo < qtdJogos; jogo++) {
+                int palpite = historico.getPalpiteJogo(linha, jogo);
+                out.writeByte(TipoAposta.doPalpite(palpite).ordinal());
+                out.writeByte(TipoAposta.getAlvoDoPalpite(palpite));
+                out.writeInt(historico.getFichasJogo(linha, jogo));
+            }
+        }
+    }
+
+    /**
+     * Lê o estado de um jogador no formato binário do instantâneo.
+     */
+    private static EstadoJogador lerJogador(DataInputStream in, int versaoFormato) throws IOException {
+        EstadoJogador estado = new EstadoJogador();
+        estado.idJogador = in.readInt();
+        estado.versaoDiario = in.readLong();
+        estado.qtdFicha = in.readInt();
+        estado.saldoCentavos = in.readLong();
+        if (versaoFormato > VERSAO_FORMATO_SEM_LOTES) {
+            int qtdLotes = in.readInt();
+            estado.valoresLotes = new long[qtdLotes];
+            estado.diasLotes = new int[qtdLotes];
+            for (int i = 0; i < qtdLotes; i++) {
+                estado.valoresLotes[i] = in.readLong();
+                estado.diasLotes[i] = in.readInt();
+            }
+        } else {
+            // o saldo antigo vira um único lote, com a validade única que ele tinha.
+            long validade = in.readLong();
+            int dia = validade != Long.MIN_VALUE ? Dias.doInstante(validade) : Dias.hoje() + Credito.DIAS_VALIDADE;
+            estado.valoresLotes = estado.saldoCentavos > 0 ? new long[] {estado.saldoCentavos} : new long[0];
+            estado.diasLotes = estado.saldoCentavos > 0 ? new int[] {dia} : new int[0];
+        }
+        estado.qtdApostas = in.readInt();
+        if (versaoFormato > VERSAO_FORMATO_SEM_ARQUIVO_HISTORICO) {
+            estado.maiorIdAposta = in.readInt();
+            estado.tamanhoHistorico = in.readLong();
+            if (estado.tamanhoHistorico != HISTORICO_NO_INSTANTANEO) {
+                return estado;
+            }
+        }
+        estado.historico = new HistoricoApostas();
+        for (int i = 0; i < estado.qtdApostas; i++) {
+            int idAposta = in.readInt();
+            long instante = versaoFormato > VERSAO_FORMATO_SEM_INSTANTE ? in.readLong() : 0;
+            int numeroSorteado = in.readByte();
+            int premioTotal = in.readInt();
+            int qtdJogos = in.readShort();
+            int[] palpites = new int[qtdJogos];
+            int[] fichas = new int[qtdJogos];
+            for (int j = 0; j < qtdJogos; j++) {
+                TipoAposta tipo = versaoFormato == VERSAO_FORMATO_CORES ? TipoAposta.COR : TipoAposta.doIndice(in.readByte());
+                palpites[j] = tipo.getIndice(in.readByte());
+                fichas[j] = in.readInt();
+            }
+            estado.historico.incluir(idAposta, instante, numeroSorteado, premioTotal, palpites, fichas);
+            estado.maiorIdAposta = Math.max(estado.maiorIdAposta, idAposta);
+        }
+        return estado;
+    }
+
+}
@@ -0,0 +1,98 @@
+package POOBet;
+
+/**
+ * A interface Interacao é a porta pela qual o domínio (Jogador, Aposta e
+ * Credito) lê as entradas e exibe as mensagens do usuário, sem depender de
+ * uma interface gráfica. Os métodos têm os mesmos nomes dos da classe InOut.
+ * <p>
+ * Implementações:
+ * <ul>
+ * <li>InteracaoSwing: as janelas de diálogo da classe InOut (o padrão);</li>
+ * <li>InteracaoConsole: a entrada e a saída padrão;</li>
+ * <li>InteracaoRoteiro: repete as entradas de um arquivo, sem esperar por ninguém;</li>
+ * <li>InteracaoNula: descarta as mensagens e não aceita entradas.</li>
+ * </ul>
+ *
+ * @see Jogador#setInteracao(Interacao)
+ */
+public interface Interacao {
+
+    /**
+     * Lê um texto.
+     * @param frase indica o que será lido.
+     * @return o texto lido, ou null se o usuário cancelar.
+     * @throws FimDasEntradas se não houver mais entradas.
+     */
+    String leString(String frase);
+
+    /**
+     * Lê um número inteiro, perguntando novamente até que ele seja válido.
+     * @param frase indica o que será lido.
+     * @return o número lido.
+     * @throws FimDasEntradas se não houver mais entradas.
+     */
+    int leInt(String frase);
+
+    /**
+     * Lê um número real, perguntando novamente até que ele seja válido.
+     * @param frase indica o que será lido.
+     * @return o número lido.
+     * @throws FimDasEntradas se não houver mais entradas.
+     */
+    double leDouble(String frase);
+
+    /**
+     * Lê uma opção de uma lista.
+     * @param cabecalho o título da pergunta.
+     * @param frase     indica o que será lido.
+     * @param opcoes    a lista de opções.
+     * @return o índice da opção escolhida.
+     * @throws FimDasEntradas se não houver mais entradas.
+     */
+    int leOpcoes(String cabecalho, String frase, String[] opcoes);
+
+    /**
+     * Exibe uma mensagem de erro.
+     * @param cabecalho o título da mensagem.
+     * @param frase     a mensagem.
+     */
+    void MsgDeErro(String cabecalho, String frase);
+
+    /**
+     * Exibe uma mensagem de informação.
+     * @param cabecalho o título da mensagem.
+     * @param frase     a mensagem.
+     */
+    void MsgDeInformacao(String cabecalho, String frase);
+
+    /**
+     * Exibe uma mensagem de aviso.
+     * @param cabecalho o título da mensagem.
+     * @param frase     a mensagem.
+     */
+    void MsgDeAviso(String cabecalho, String frase);
+
+    /**
+     * Exibe o histórico de apostas de um jogador.
+     * @param historico o histórico de apostas.
+     */
+    void exibirHistorico(HistoricoApostas historico);
+
+    /**
+     * Exceção lançada quando uma leitura não pode ser atendida porque as
+     * entradas acabaram: o fim do roteiro ou da entrada padrão.
+     */
+    class FimDasEntradas extends IllegalStateException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Cria a exceção.
+         * @param mensagem a descrição do motivo.
+         */
+        public FimDasEntradas(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package POOBet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+/**
+ * A classe InteracaoConsole implementa a Interacao na entrada e na saída
+ * padrão, para usar o programa em um terminal, sem interface gráfica.
+ */
+public class InteracaoConsole extends InteracaoTexto {
+
+    private final BufferedReader entrada = new BufferedReader(new InputStreamReader(System.in));
+
+    /**
+     * Cria a interação sobre System.in e System.out.
+     */
+    public InteracaoConsole() {
+        super(System.out);
+    }
+
+    @Override
+    protected String lerLinha() {
+        try {
+            return entrada.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler a entrada padrão.", e);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package POOBet;
+
+/**
+ * A classe InteracaoNula descarta todas as mensagens e não aceita entradas.
+ * Serve para executar o domínio sem usuário, em lote, em um servidor ou em
+ * um benchmark: as operações que apenas exibem mensagens continuam
+ * funcionando, e as que precisariam de uma resposta falham em vez de
+ * esperar por ela.
+ */
+public class InteracaoNula implements Interacao {
+
+    @Override
+    public String leString(String frase) {
+        throw semEntradas();
+    }
+
+    @Override
+    public int leInt(String frase) {
+        throw semEntradas();
+    }
+
+    @Override
+    public double leDouble(String frase) {
+        throw semEntradas();
+    }
+
+    @Override
+    public int leOpcoes(String cabecalho, String frase, String[] opcoes) {
+        throw semEntradas();
+    }
+
+    @Override
+    public void MsgDeErro(String cabecalho, String frase) {
+    }
+
+    @Override
+    public void MsgDeInformacao(String cabecalho, String frase) {
+    }
+
+    @Override
+    public void MsgDeAviso(String cabecalho, String frase) {
+    }
+
+    @Override
+    public void exibirHistorico(HistoricoApostas historico) {
+    }
+
+    private static FimDasEntradas semEntradas() {
+        return new FimDasEntradas("A interação nula não lê entradas.");
+    }
+
+}
@@ -0,0 +1,66 @@
+package POOBet;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A classe InteracaoRoteiro implementa a Interacao repetindo uma lista de
+ * entradas, uma por leitura, na ordem em que foram gravadas. Ela permite
+ * executar as mesmas operações da interface gráfica sem esperar por um
+ * usuário, por exemplo para reproduzir uma sessão ou medir a vazão.
+ * <p>
+ * No arquivo de roteiro, cada linha é uma entrada; linhas vazias e linhas
+ * que começam com '#' são ignoradas. Quando as entradas acabam, a próxima
+ * leitura lança Interacao.FimDasEntradas.
+ */
+public class InteracaoRoteiro extends InteracaoTexto {
+
+    private final String[] entradas;
+    private int proxima;
+
+    /**
+     * Cria a interação a partir de uma lista de entradas.
+     * @param entradas as entradas, na ordem em que serão lidas.
+     * @param saida    onde as perguntas e as mensagens são escritas, ou null para descartá-las.
+     */
+    public InteracaoRoteiro(List<String> entradas, PrintStream saida) {
+        super(saida);
+        this.entradas = entradas.toArray(new String[0]);
+    }
+
+    /**
+     * Cria a interação a partir de um arquivo de roteiro.
+     * @param arquivo o arquivo de roteiro.
+     * @param saida   onde as perguntas e as mensagens são escritas, ou null para descartá-las.
+     * @return a interação.
+     * @throws IOException se o arquivo não puder ser lido.
+     */
+    public static InteracaoRoteiro doArquivo(Path arquivo, PrintStream saida) throws IOException {
+        List<String> entradas = new ArrayList<String>();
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            if (!linha.isBlank() && !linha.startsWith("#")) {
+                entradas.add(linha);
+            }
+        }
+        return new InteracaoRoteiro(entradas, saida);
+    }
+
+    @Override
+    protected synchronized String lerLinha() {
+        return proxima < entradas.length ? entradas[proxima++] : null;
+    }
+
+    /**
+     * Obtém a quantidade de entradas ainda não lidas.
+     * @return a quantidade de entradas restantes.
+     */
+    public synchronized int getQtdRestantes() {
+        return entradas.length - proxima;
+    }
+
+}
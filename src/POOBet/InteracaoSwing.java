@@ -0,0 +1,51 @@
+package POOBet;
+
+/**
+ * A classe InteracaoSwing implementa a Interacao com as janelas de diálogo
+ * da classe InOut, exibidas na thread de eventos do Swing.
+ *
+ * @see InOut
+ */
+public class InteracaoSwing implements Interacao {
+
+    @Override
+    public String leString(String frase) {
+        return InOut.leString(frase);
+    }
+
+    @Override
+    public int leInt(String frase) {
+        return InOut.leInt(frase);
+    }
+
+    @Override
+    public double leDouble(String frase) {
+        return InOut.leDouble(frase);
+    }
+
+    @Override
+    public int leOpcoes(String cabecalho, String frase, String[] opcoes) {
+        return InOut.leOpcoes(cabecalho, frase, opcoes);
+    }
+
+    @Override
+    public void MsgDeErro(String cabecalho, String frase) {
+        InOut.MsgDeErro(cabecalho, frase);
+    }
+
+    @Override
+    public void MsgDeInformacao(String cabecalho, String frase) {
+        InOut.MsgDeInformacao(cabecalho, frase);
+    }
+
+    @Override
+    public void MsgDeAviso(String cabecalho, String frase) {
+        InOut.MsgDeAviso(cabecalho, frase);
+    }
+
+    @Override
+    public void exibirHistorico(HistoricoApostas historico) {
+        InOut.executarNaInterface(() -> new JanelaHistoricoApostas(historico).exibir());
+    }
+
+}
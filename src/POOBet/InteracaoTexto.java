@@ -0,0 +1,140 @@
+package POOBet;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A classe InteracaoTexto implementa a Interacao sobre linhas de texto: cada
+ * leitura consome uma linha e cada mensagem é escrita como uma linha. As
+ * subclasses definem de onde as linhas vêm (a entrada padrão ou um roteiro).
+ * <p>
+ * Como na classe InOut, uma entrada inválida gera uma mensagem de erro e a
+ * pergunta é repetida com a próxima linha. As opções de leOpcoes podem ser
+ * respondidas pelo número (a partir de 1) ou pelo texto da opção.
+ * <p>
+ * Os métodos são sincronizados, para que a pergunta e a resposta de uma
+ * leitura não se misturem com as de outra thread.
+ */
+public abstract class InteracaoTexto implements Interacao {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final PrintStream saida;
+
+    /**
+     * Cria a interação.
+     * @param saida onde as perguntas e as mensagens são escritas, ou null para descartá-las.
+     */
+    protected InteracaoTexto(PrintStream saida) {
+        this.saida = saida;
+    }
+
+    /**
+     * Lê a próxima linha de entrada.
+     * @return a linha, sem a quebra de linha, ou null se as entradas acabaram.
+     */
+    protected abstract String lerLinha();
+
+    @Override
+    public synchronized String leString(String frase) {
+        return ler(frase);
+    }
+
+    @Override
+    public synchronized int leInt(String frase) {
+        while (true) {
+            try {
+                return Integer.parseInt(ler(frase));
+            } catch (NumberFormatException e) {
+                MsgDeErro("   >>>      ERRO     <<<", "VALOR DEVE SER UM NUMERO DO TIPO INTEIRO");
+            }
+        }
+    }
+
+    @Override
+    public synchronized double leDouble(String frase) {
+        while (true) {
+            try {
+                return Double.parseDouble(ler(frase));
+            } catch (NumberFormatException e) {
+                MsgDeErro("   >>>      ERRO     <<<", "VALOR DEVE SER UM NUMERO DO TIPO DOUBLE");
+            }
+        }
+    }
+
+    @Override
+    public synchronized int leOpcoes(String cabecalho, String frase, String[] opcoes) {
+        StringBuilder pergunta = new StringBuilder();
+        pergunta.append(cabecalho).append(": ").append(frase);
+        for (int i = 0; i < opcoes.length; i++) {
+            pergunta.append(System.lineSeparator()).append("  ").append(i + 1).append(") ").append(opcoes[i]);
+        }
+        while (true) {
+            String resposta = ler(pergunta.toString());
+            for (int i = 0; i < opcoes.length; i++) {
+                if (opcoes[i].equalsIgnoreCase(resposta) || String.valueOf(i + 1).equals(resposta)) {
+                    return i;
+                }
+            }
+            MsgDeErro("   >>>      ERRO     <<<", "OPCAO INVALIDA: " + resposta);
+        }
+    }
+
+    @Override
+    public void MsgDeErro(String cabecalho, String frase) {
+        escrever("[ERRO] " + cabecalho + ": " + frase);
+    }
+
+    @Override
+    public void MsgDeInformacao(String cabecalho, String frase) {
+        escrever(cabecalho + ": " + frase);
+    }
+
+    @Override
+    public void MsgDeAviso(String cabecalho, String frase) {
+        escrever("[AVISO] " + cabecalho + ": " + frase);
+    }
+
+    @Override
+    public void exibirHistorico(HistoricoApostas historico) {
+        if (saida == null) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%8s  %-19s  %6s  %-8s  %6s  %6s%n", "ID", "Data", "Número", "Cor", "Fichas", "Prêmio"));
+        for (int linha = 0; linha < historico.getQtdApostas(); linha++) {
+            sb.append(String.format("%8d  %-19s  %6d  %-8s  %6d  %6d%n",
+                    historico.getIdAposta(linha),
+                    FORMATO_DATA.format(Instant.ofEpochMilli(historico.getInstante(linha))),
+                    historico.getNumeroSorteado(linha),
+                    historico.getCorSorteada(linha),
+                    historico.getFichasApostadas(linha),
+                    historico.getPremioTotal(linha)));
+        }
+        synchronized (this) {
+            saida.print(sb);
+            saida.flush();
+        }
+    }
+
+    /**
+     * Escreve a pergunta e lê a resposta, sem os espaços das pontas.
+     */
+    private String ler(String frase) {
+        escrever(frase);
+        String linha = lerLinha();
+        if (linha == null) {
+            throw new FimDasEntradas("As entradas acabaram antes da resposta a: " + frase.lines().findFirst().orElse(""));
+        }
+        return linha.trim();
+    }
+
+    private synchronized void escrever(String texto) {
+        if (saida != null) {
+            saida.println(texto);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package POOBet;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A classe JanelaHistoricoApostas exibe o histórico de apostas de um
+ * jogador em uma tabela, usando um ModeloHistoricoApostas. Clicar no
+ * cabeçalho de uma coluna ordena a tabela por ela, e a barra acima da
+ * tabela filtra as apostas por cor sorteada, data e prêmio mínimo.
+ */
+public class JanelaHistoricoApostas {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final ModeloHistoricoApostas modelo;
+    private final JDialog dialog = new JDialog();
+    private final JComboBox<Object> campoCor = new JComboBox<Object>();
+    private final JTextField campoData = new JTextField(8);
+    private final JTextField campoPremio = new JTextField(5);
+
+    /**
+     * Cria a janela do histórico de apostas informado.
+     * @param historico o histórico de apostas do jogador.
+     */
+    public JanelaHistoricoApostas(HistoricoApostas historico) {
+        this.modelo = new ModeloHistoricoApostas(historico);
+
+        dialog.setTitle("Lista de Apostas");
+        dialog.setModal(true);
+
+        // a tabela pede ao modelo apenas as linhas visíveis.
+        JTable tabela = new JTable(modelo);
+        tabela.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int coluna = tabela.columnAtPoint(e.getPoint());
+                if (coluna >= 0) {
+                    modelo.ordenar(tabela.convertColumnIndexToModel(coluna));
+                }
+            }
+        });
+
+        campoCor.addItem("Todas");
+        for (Cor cor : Cor.values()) {
+            campoCor.addItem(cor);
+        }
+        JButton botaoFiltrar = new JButton("Filtrar");
+        botaoFiltrar.addActionListener(e -> aplicarFiltro());
+
+        JPanel filtros = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filtros.add(new JLabel("Cor:"));
+        filtros.add(campoCor);
+        filtros.add(new JLabel("A partir de (dd/mm/aaaa):"));
+        filtros.add(campoData);
+        filtros.add(new JLabel("Prêmio mínimo:"));
+        filtros.add(campoPremio);
+        filtros.add(botaoFiltrar);
+
+        dialog.add(filtros, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(tabela), BorderLayout.CENTER);
+        dialog.setSize(800, 400);
+        dialog.setLocationRelativeTo(null);
+    }
+
+    /**
+     * Exibe a janela e espera que ela seja fechada.
+     */
+    public void exibir() {
+        dialog.setVisible(true);
+    }
+
+    /**
+     * Lê os campos da barra de filtros e filtra a tabela.
+     */
+    private void aplicarFiltro() {
+        Object cor = campoCor.getSelectedItem();
+
+        long instanteMinimo = Long.MIN_VALUE;
+        String data = campoData.getText().trim();
+        if (!data.isEmpty()) {
+            try {
+                instanteMinimo = LocalDate.parse(data, FORMATO_DATA).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                InOut.MsgDeErro("Erro", "A data deve estar no formato dd/mm/aaaa.");
+                return;
+            }
+        }
+
+        int premioMinimo = Integer.MIN_VALUE;
+        String premio = campoPremio.getText().trim();
+        if (!premio.isEmpty()) {
+            try {
+                premioMinimo = Integer.parseInt(premio);
+            } catch (NumberFormatException e) {
+                InOut.MsgDeErro("Erro", "O prêmio mínimo deve ser um número inteiro.");
+                return;
+            }
+        }
+
+        modelo.filtrar(cor instanceof Cor ? (Cor) cor : null, instanteMinimo, premioMinimo);
+    }
+
+}
@@ -1,15 +1,38 @@
 package POOBet;
 
+import javax.management.JMException;
+import javax.swing.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A classe Jogador encapsula informações e funcionalidades relacionadas a um jogador no contexto de um jogo.
  * Cada jogador possui um identificador único, informações pessoais, um saldo de crédito, fichas para apostas
  * e uma lista de apostas realizadas.
+ * <p>
+ * As fichas são alteradas apenas sob a trava do jogador, de modo que
+ * várias sessões podem apostar em paralelo com o mesmo jogador sem que o
+ * saldo de fichas fique negativo ou perca atualizações. O contador é
+ * atômico para que as consultas o leiam sem trava.
+ * <p>
+ * Quando um Diario é associado ao jogador, todas as movimentações de
+ * crédito, de fichas e as apostas liquidadas são registradas nele. Cada
+ * movimentação e o seu registro acontecem sob a trava do próprio jogador,
+ * junto com o incremento da sua versão, para que um Instantaneo sempre
+ * capture um estado coerente com o diário sem pausar os demais jogadores.
+ * <p>
+ * Quando um ArquivoHistorico é associado ao jogador, as apostas liquidadas
+ * também são escritas nele, e o histórico em memória só é lido do arquivo
+ * na primeira consulta.
  */
 public class Jogador {
 
@@ -21,10 +44,20 @@ public class Jogador {
     private String nacionalidade;
     private Date dataNascimento;
     private Credito credito;
-    private int qtdFicha;
-    private HashMap<Integer, Aposta> listaApostas;
-    private static int proximoIdJogador = 1;
-    private static Locale ptBr = new Locale("pt","BR");
+    private final AtomicInteger qtdFicha = new AtomicInteger();
+    private volatile HistoricoApostas historico;
+    private ArquivoHistorico arquivoHistorico;
+    private long tamanhoHistorico;
+    private int qtdApostas;
+    private int maiorIdAposta;
+    private Diario diario;
+    private long versaoDiario;
+    private ExpiracaoCredito expiracao;
+    private int diaExpiracaoAgendada = Credito.SEM_VALIDADE;
+    private static GeradorIds geradorIds = GeradorIds.emMemoria();
+    private static volatile Interacao interacaoPadrao = new InteracaoSwing();
+    private volatile Interacao interacao = interacaoPadrao;
+    private static final long VALOR_FICHA_CENTAVOS = 50 * Dinheiro.CENTAVOS_POR_UNIDADE;
 
     /**
      * Construtor da classe Jogador. Inicializa um jogador com informações básicas.
@@ -37,8 +70,7 @@ public class Jogador {
      * @param dataNascimento    A data de nascimento do jogador.
      */
     public Jogador (String nome, String sobrenome, String apelido, String cpf, String nacionalidade, Date dataNascimento) {
-        this.idJogador = proximoIdJogador;
-        proximoIdJogador++;
+        this.idJogador = geradorIds.proximoId();
         this.nome = nome;
         this.sobrenome = sobrenome;
         this.apelido = apelido;
@@ -46,62 +78,213 @@ public class Jogador {
         this.nacionalidade = nacionalidade;
         this.dataNascimento = dataNascimento;
         this.credito = new Credito();
-        this.qtdFicha = 0;
-        this.listaApostas = new HashMap<Integer, Aposta>();
+        this.historico = new HistoricoApostas();
     }
 
     /**
-     * Método principal que cria um jogador de exemplo e inicia a interface gráfica do menu.
+     * Método principal que cria um jogador de exemplo e inicia a interface gráfica do menu,
+     * ou o menu de texto se outra Interacao for escolhida com -Dpoobet.interacao.
      * @param args Argumentos da linha de comando.
      */
     public static void main(String[] args) {
 
+        Path dados = Path.of(System.getProperty("poobet.dados", "dados"));
+
+        // a interação usada pelo domínio: as janelas do Swing (padrão), o console, um roteiro ou nenhuma.
+        Interacao interacao;
+        try {
+            interacao = criarInteracao(System.getProperty("poobet.interacao", "swing"));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Não foi possível criar a interação: " + e.getMessage());
+            return;
+        }
+        setInteracaoPadrao(interacao);
+
+        // apostas e jogos usam IDs reservados em arquivo, únicos entre execuções. O jogador de
+        // exemplo continua com o gerador em memória para manter o ID usado pelo diário.
+        try {
+            Aposta.setGeradorIds(GeradorIds.comArquivo(dados.resolve("ids-apostas")));
+            Jogo.setGeradorIds(GeradorIds.comArquivo(dados.resolve("ids-jogos")));
+        } catch (IOException e) {
+            interacao.MsgDeErro("Erro nos IDs", "Não foi possível reservar os IDs em arquivo, os IDs serão gerados apenas em memória:\n" + e.getMessage());
+        }
+
+        // limite opcional da exposição da casa por cor, em fichas a pagar.
+        Long limiteExposicao = Long.getLong("poobet.exposicao.limite");
+        if (limiteExposicao != null) {
+            Aposta.setControleExposicao(new ControleExposicao(limiteExposicao, ControleExposicao.Politica.RECUSAR));
+        }
+
         Jogador j1 = new Jogador("Fulano", "de Tal", "Fulano", "111.111.111-11", "Brasileiro", Date.from(Instant.now()));
+        RegistroJogadores registro = new RegistroJogadores();
+        registro.cadastrar(j1);
+
+        // restaura o estado do jogador a partir do seu arquivo de histórico, do último instantâneo e do diário, e passa a registrar suas movimentações.
+        try {
+            Path arquivoInstantaneo = dados.resolve("jogadores.snap");
+            Diario diario = new Diario(dados.resolve("diario"));
+            for (Jogador jogador : registro.getJogadores()) {
+                jogador.setArquivoHistorico(new ArquivoHistorico(dados.resolve("historico").resolve("jogador-" + jogador.getIdJogador() + ".hist")));
+            }
+            long posicao = Instantaneo.carregar(arquivoInstantaneo, registro::buscarPorId);
+            diario.reproduzir(registro::buscarPorId, posicao);
+            for (Jogador jogador : registro.getJogadores()) {
+                jogador.setDiario(diario);
+            }
+
+            // grava um novo instantâneo periodicamente e descarta os segmentos do diário que ele já cobre.
+            long intervalo = Long.getLong("poobet.instantaneo.minutos", 5);
+            ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "instantaneo");
+                t.setDaemon(true);
+                return t;
+            });
+            agendador.scheduleWithFixedDelay(() -> {
+                try {
+                    diario.descartarAte(Instantaneo.gravar(arquivoInstantaneo, diario, registro.getJogadores()));
+                } catch (IOException e) {
+                    System.err.println("Não foi possível gravar o instantâneo: " + e.getMessage());
+                }
+            }, intervalo, intervalo, TimeUnit.MINUTES);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(diario::close));
+        } catch (IOException e) {
+            interacao.MsgDeErro("Erro no diário", "Não foi possível abrir o diário de apostas, as movimentações não serão salvas:\n" + e.getMessage());
+        }
+
+        // contadores e latências das operações, consultáveis por JMX.
+        try {
+            Metricas.registrarJmx();
+        } catch (JMException e) {
+            System.err.println("Não foi possível registrar as métricas no JMX: " + e.getMessage());
+        }
 
-        MenuGUI gui = new MenuGUI(Jogador.class.getClassLoader().getResource("resources/background.jpg").getPath(), j1);
+        // barramento de eventos opcional, com um ouvinte que grava os eventos em arquivo.
+        String arquivoEventos = System.getProperty("poobet.eventos.arquivo");
+        if (arquivoEventos != null) {
+            try {
+                RegistroEventos registroEventos = new RegistroEventos(Path.of(arquivoEventos));
+                BarramentoEventos barramento = new BarramentoEventos(Integer.getInteger("poobet.eventos.capacidade", BarramentoEventos.CAPACIDADE_PADRAO));
+                barramento.inscrever("arquivo", registroEventos);
+                barramento.iniciar();
+                BarramentoEventos.setPadrao(barramento);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        barramento.encerrar();
+                        registroEventos.close();
+                    } catch (InterruptedException | IOException e) {
+                        System.err.println("Não foi possível encerrar o registro de eventos: " + e.getMessage());
+                    }
+                }));
+            } catch (IOException e) {
+                System.err.println("Não foi possível abrir o arquivo de eventos: " + e.getMessage());
+            }
+        }
+
+        // expira os créditos vencidos agora e a cada virada de dia.
+        ExpiracaoCredito expiracao = new ExpiracaoCredito(registro::buscarPorId);
+        for (Jogador jogador : registro.getJogadores()) {
+            jogador.setExpiracao(expiracao);
+        }
+        expiracao.iniciar(Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expiracao");
+            t.setDaemon(true);
+            return t;
+        }));
+
+        // API HTTP opcional, atendida pelo mesmo registro de jogadores da interface gráfica.
+        Integer portaHttp = Integer.getInteger("poobet.http.porta");
+        if (portaHttp != null) {
+            try {
+                int qtdThreads = Integer.getInteger("poobet.http.threads", 4 * Runtime.getRuntime().availableProcessors());
+                ServidorApostas servidor = new ServidorApostas(registro, new InetSocketAddress(portaHttp), qtdThreads);
+                servidor.iniciar();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> servidor.parar(1)));
+            } catch (IOException e) {
+                interacao.MsgDeErro("Erro no servidor", "Não foi possível iniciar a API HTTP na porta " + portaHttp + ":\n" + e.getMessage());
+            }
+        }
+
+        // a janela é criada na thread de eventos; a imagem de fundo é lida do classpath, inclusive dentro do jar.
+        if (interacao instanceof InteracaoSwing) {
+            SwingUtilities.invokeLater(() -> new MenuGUI("resources/background.jpg", dados.resolve("cache"), j1));
+        } else {
+            new MenuTexto(j1, interacao).executar();
+        }
 
     }
 
+    /**
+     * Cria a Interacao escolhida pelo nome: "swing", "console", "nula" ou
+     * "roteiro", que lê as entradas do arquivo informado em
+     * -Dpoobet.interacao.roteiro. Com -Dpoobet.interacao.silenciosa=true, o
+     * roteiro descarta as perguntas e as mensagens.
+     * @param tipo O nome da interação.
+     * @return A interação.
+     * @throws IOException se o arquivo do roteiro não puder ser lido.
+     * @throws IllegalArgumentException se o nome for desconhecido ou se faltar o arquivo do roteiro.
+     */
+    private static Interacao criarInteracao(String tipo) throws IOException {
+        switch (tipo) {
+            case "swing":
+                return new InteracaoSwing();
+            case "console":
+                return new InteracaoConsole();
+            case "nula":
+                return new InteracaoNula();
+            case "roteiro":
+                String arquivo = System.getProperty("poobet.interacao.roteiro");
+                if (arquivo == null) {
+                    throw new IllegalArgumentException("Informe o arquivo do roteiro em -Dpoobet.interacao.roteiro.");
+                }
+                return InteracaoRoteiro.doArquivo(Path.of(arquivo), Boolean.getBoolean("poobet.interacao.silenciosa") ? null : System.out);
+            default:
+                throw new IllegalArgumentException("Interação desconhecida: " + tipo + ".");
+        }
+    }
+
     /**
      * Cria uma nova aposta para o jogador e a adiciona à lista de apostas.
      */
     public void criarAposta() {
         if (!this.verificarDisponibilidadeFichas(1)) {
-            InOut.MsgDeErro("Erro","A quantidade de fichas disponível não é suficiente para realizar a aposta.");
+            interacao.MsgDeErro("Erro","A quantidade de fichas disponível não é suficiente para realizar a aposta.");
             return;
         }
 
         // cria a nova aposta e coloca ela na lista de apostas.
         Aposta aposta = new Aposta(this);
-        listaApostas.put(aposta.getIdAposta(), aposta);
+        incluirAposta(aposta);
     }
 
     /**
-     * Consulta e exibe informações sobre as apostas do jogador em uma tabela.
+     * Cria uma nova aposta para o jogador sem interação com o usuário,
+     * a partir dos palpites recebidos, e a adiciona à lista de apostas.
+     * @param palpites Os palpites (Jogo) da aposta.
+     * @return A aposta criada, já sorteada e liquidada.
+     * @throws IllegalArgumentException se o jogador não possuir fichas suficientes.
+     * @throws IllegalStateException se a aposta ultrapassar o limite de exposição da casa.
      */
-    public void consultarApostas() {
-        String[] cabecalhosTabela = {"ID da Aposta", "Cor Sorteada", "Quantidade de Jogos", "Prêmio Total (fichas)"};
-        Object[][] dadosTabela = new Object[listaApostas.size()][4];
-        int linhaAtual = 0;
-        for (Map.Entry<Integer, Aposta> entry : listaApostas.entrySet()) {
-            Integer chave = entry.getKey();
-            Aposta valor = entry.getValue();
-            dadosTabela[linhaAtual][0] = chave;
-            dadosTabela[linhaAtual][1] = valor.getCorSorteada();
-            dadosTabela[linhaAtual][2] = valor.getListaJogos().size();
-            dadosTabela[linhaAtual][3] = valor.getPremioTotal();
-            linhaAtual++;
-        }
+    public Aposta criarAposta(List<Jogo> palpites) {
+        Aposta aposta = new Aposta(this, palpites);
+        incluirAposta(aposta);
+        return aposta;
+    }
 
-        InOut.ExibeTabela("Lista de Apostas", cabecalhosTabela, dadosTabela);
+    /**
+     * Consulta e exibe informações sobre as apostas do jogador em uma tabela,
+     * que lê as apostas diretamente do histórico, apenas quando são exibidas.
+     */
+    public void consultarApostas() {
+        interacao.exibirHistorico(getHistorico());
     }
 
     /**
      * Adiciona crédito à conta do jogador.
      */
     public void adicionarCredito() {
-        double saldoAdicionar = InOut.leDouble("Insira o valor que deseja depositar em sua conta.");
-        credito.adicionarSaldo(saldoAdicionar);
+        double saldoAdicionar = interacao.leDouble("Insira o valor que deseja depositar em sua conta.");
+        depositarCredito(Dinheiro.paraCentavos(saldoAdicionar));
         consultarCredito();
     }
 
@@ -109,8 +292,10 @@ public class Jogador {
      *  Retira crédito da conta do jogador.
      */
     public void retirarCredito() {
-        double saldoRetirar = InOut.leDouble("Insira o valor que deseja retirar da sua conta");
-        credito.removerSaldo(saldoRetirar);
+        double saldoRetirar = interacao.leDouble("Insira o valor que deseja retirar da sua conta");
+        if (!retirar(Dinheiro.paraCentavos(saldoRetirar))) {
+            interacao.MsgDeErro("Erro na retirada","Você não pode retirar um valor maior que seu saldo atual.");
+        }
         consultarCredito();
     }
 
@@ -118,7 +303,15 @@ public class Jogador {
      * Consulta e exibe o saldo de crédito do jogador.
      */
     public void consultarCredito() {
-        InOut.MsgDeInformacao("Consulta de Saldo", "Seu saldo atual é de " + credito.getMoeda() + " " + String.format(ptBr,"%,.2f", credito.getSaldo()));
+        interacao.MsgDeInformacao("Consulta de Saldo", "Seu saldo atual é de " + credito.getMoeda() + " " + Dinheiro.formatar(credito.getSaldoCentavos()));
+    }
+
+    /**
+     * Obtém o saldo de crédito do jogador.
+     * @return O saldo, em centavos.
+     */
+    public long getSaldoCentavos() {
+        return this.credito.getSaldoCentavos();
     }
 
     /**
@@ -126,7 +319,7 @@ public class Jogador {
      * @return A quantidade de fichas do jogador.
      */
     public int getQtdFicha() {
-        return this.qtdFicha;
+        return this.qtdFicha.get();
     }
 
     /**
@@ -135,36 +328,57 @@ public class Jogador {
      * @return true se houver fichas disponíveis em quantidade suficiente, caso contrário, false.
      */
     public boolean verificarDisponibilidadeFichas(int qtdFichasAVerificar) {
-        return this.qtdFicha >= qtdFichasAVerificar;
+        return this.qtdFicha.get() >= qtdFichasAVerificar;
     }
 
     /**
      * Adiciona fichas à conta do jogador.
      * @param qtd A quantidade de fichas a adicionar.
+     * @throws IllegalArgumentException se a quantidade for negativa.
+     * @throws ArithmeticException se o saldo de fichas não couber em um int.
      */
     public void adicionarFichas(int qtd) {
-        this.qtdFicha+=qtd;
+        if (qtd < 0) {
+            throw new IllegalArgumentException("A quantidade de fichas a adicionar não pode ser negativa.");
+        }
+        long posicao;
+        synchronized (this) {
+            this.qtdFicha.set(Math.addExact(this.qtdFicha.get(), qtd));
+            posicao = registrarFichas(qtd);
+        }
+        sincronizarDiario(posicao);
     }
 
     /**
      * Consulta e exibe a quantidade de fichas disponíveis para o jogador.
      */
     public void consultarFichas() {
-        InOut.MsgDeInformacao("Consulta de Fichas", "O saldo de fichas disponível é: " + this.qtdFicha + " fichas.");
+        interacao.MsgDeInformacao("Consulta de Fichas", "O saldo de fichas disponível é: " + this.qtdFicha.get() + " fichas.");
     }
 
     /**
-     * Remove fichas da conta do jogador.
+     * Remove fichas da conta do jogador. A verificação e a remoção
+     * acontecem sob a trava do jogador, como em adicionarFichas, então
+     * duas remoções concorrentes nunca deixam o saldo de fichas negativo.
      * @param qtd A quantidade de fichas a serem removidas.
      * @return true se a remoção for bem-sucedida, caso contrário, false.
+     * @throws IllegalArgumentException se a quantidade não for positiva.
      */
     public boolean removerFichas(int qtd) {
-        if (verificarDisponibilidadeFichas(qtd)) {
-            this.qtdFicha -= qtd;
-            return true;
-        } else {
-            return false;
+        if (qtd <= 0) {
+            throw new IllegalArgumentException("A quantidade de fichas a remover deve ser positiva.");
         }
+        long posicao;
+        synchronized (this) {
+            int atual = this.qtdFicha.get();
+            if (atual < qtd) {
+                return false;
+            }
+            this.qtdFicha.set(atual - qtd);
+            posicao = registrarFichas(-qtd);
+        }
+        sincronizarDiario(posicao);
+        return true;
     }
 
     /**
@@ -172,16 +386,13 @@ public class Jogador {
      */
     public void converterSaldoParaFichas() {
 
-        double saldoAConverter = InOut.leDouble("Escolha o valor em " + this.credito.getMoeda() + " a ser convertido para fichas.");
+        double saldoAConverter = interacao.leDouble("Escolha o valor em " + this.credito.getMoeda() + " a ser convertido para fichas.");
 
-        if (this.credito.getSaldo() >= 50 && this.credito.verificarDisponibilidade(saldoAConverter)) {
-            int fichasParaAdicionar = (int) (saldoAConverter / 50);
-            this.adicionarFichas(fichasParaAdicionar);
-            this.credito.removerSaldo(fichasParaAdicionar * 50);
+        if (converterSaldoParaFichas(Dinheiro.paraCentavos(saldoAConverter)) > 0) {
             consultarCredito();
             consultarFichas();
         } else {
-            InOut.MsgDeErro("ERRO","Saldo insuficiente para converter em fichas.");
+            interacao.MsgDeErro("ERRO","Saldo insuficiente para converter em fichas.");
         }
 
     }
@@ -191,17 +402,518 @@ public class Jogador {
      */
     public void converterFichasParaSaldo() {
 
-        int qtdFichasAConverter = InOut.leInt("Escolha a quantidade de fichas a ser convertida para saldo.");
+        int qtdFichasAConverter = interacao.leInt("Escolha a quantidade de fichas a ser convertida para saldo.");
 
-        if (qtdFichasAConverter > this.qtdFicha) {
-            InOut.MsgDeErro("Erro na Conversão", "A quantidade de fichas não pode ser menor que a quantidade disponível em sua conta");
-            return;
+        if (!converterFichasParaSaldo(qtdFichasAConverter)) {
+            interacao.MsgDeErro("Erro na Conversão", "A quantidade de fichas não pode ser menor que a quantidade disponível em sua conta");
         }
 
-        double saldoAdicionar = qtdFichasAConverter * 50;
-        this.credito.adicionarSaldo(saldoAdicionar);
-        this.qtdFicha -= qtdFichasAConverter;
+    }
 
+    /**
+     * Converte saldo do jogador em fichas sem interação com o usuário. Apenas
+     * fichas inteiras são compradas; o restinho do valor permanece no saldo.
+     * @param centavos O valor, em centavos, a ser convertido.
+     * @return A quantidade de fichas adicionadas, ou 0 se o saldo for insuficiente.
+     * @throws IllegalArgumentException se o valor for negativo.
+     */
+    public int converterSaldoParaFichas(long centavos) {
+        if (centavos < 0) {
+            throw new IllegalArgumentException("O valor a ser convertido não pode ser negativo.");
+        }
+        long inicio = System.nanoTime();
+        int fichasParaAdicionar = (int) Math.min(centavos / VALOR_FICHA_CENTAVOS, Integer.MAX_VALUE);
+
+        // o saldo só é convertido se a retirada do crédito for bem-sucedida.
+        if (fichasParaAdicionar > 0 && debitar(fichasParaAdicionar * VALOR_FICHA_CENTAVOS)) {
+            this.adicionarFichas(fichasParaAdicionar);
+            Metricas.fichasCompradas.add(fichasParaAdicionar);
+            Metricas.CONVERSAO_FICHAS.registrarDesde(inicio);
+            BarramentoEventos.getPadrao().publicarFichasConvertidas(this.idJogador, fichasParaAdicionar, fichasParaAdicionar * VALOR_FICHA_CENTAVOS);
+            return fichasParaAdicionar;
+        }
+        return 0;
+    }
+
+    /**
+     * Converte fichas do jogador em saldo sem interação com o usuário.
+     * @param qtd A quantidade de fichas a ser convertida.
+     * @return true se a conversão for bem-sucedida, false se a quantidade for zero
+     *         ou se não houver fichas suficientes.
+     * @throws IllegalArgumentException se a quantidade for negativa.
+     */
+    public boolean converterFichasParaSaldo(int qtd) {
+        if (qtd < 0) {
+            throw new IllegalArgumentException("A quantidade de fichas a ser convertida não pode ser negativa.");
+        }
+        if (qtd == 0) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        if (!removerFichas(qtd)) {
+            return false;
+        }
+        depositar(qtd * VALOR_FICHA_CENTAVOS);
+        Metricas.fichasVendidas.add(qtd);
+        Metricas.CONVERSAO_SALDO.registrarDesde(inicio);
+        BarramentoEventos.getPadrao().publicarFichasConvertidas(this.idJogador, -qtd, qtd * VALOR_FICHA_CENTAVOS);
+        return true;
+    }
+
+    /**
+     * Adiciona crédito à conta do jogador sem interação com o usuário.
+     * @param centavos O valor a ser depositado, em centavos.
+     * @throws IllegalArgumentException se o valor for negativo.
+     */
+    public void depositarCredito(long centavos) {
+        if (centavos < 0) {
+            throw new IllegalArgumentException("O valor a ser depositado não pode ser negativo.");
+        }
+        depositar(centavos);
+        BarramentoEventos.getPadrao().publicarCreditoAdicionado(this.idJogador, centavos);
+    }
+
+    /**
+     * Retira crédito da conta do jogador sem interação com o usuário.
+     * @param centavos O valor a ser retirado, em centavos.
+     * @return true se a retirada for bem-sucedida, false se o saldo for insuficiente.
+     * @throws IllegalArgumentException se o valor for negativo.
+     */
+    public boolean retirar(long centavos) {
+        if (centavos < 0) {
+            throw new IllegalArgumentException("O valor a ser retirado não pode ser negativo.");
+        }
+        return debitar(centavos);
+    }
+
+    /**
+     * Substitui o gerador de IDs dos jogadores.
+     * @param gerador O novo gerador de IDs.
+     */
+    public static void setGeradorIds(GeradorIds gerador) {
+        geradorIds = gerador;
+    }
+
+    /**
+     * Substitui a Interacao usada pelos jogadores criados a partir de agora.
+     * @param interacao A nova interação padrão.
+     */
+    public static void setInteracaoPadrao(Interacao interacao) {
+        interacaoPadrao = interacao;
+    }
+
+    /**
+     * Obtém a Interacao usada pelos jogadores criados a partir de agora.
+     * @return A interação padrão.
+     */
+    public static Interacao getInteracaoPadrao() {
+        return interacaoPadrao;
+    }
+
+    /**
+     * Substitui a Interacao pela qual o jogador lê as entradas e recebe as mensagens.
+     * @param interacao A nova interação.
+     */
+    public void setInteracao(Interacao interacao) {
+        this.interacao = interacao;
+    }
+
+    /**
+     * Obtém a Interacao pela qual o jogador lê as entradas e recebe as mensagens.
+     * @return A interação do jogador.
+     */
+    public Interacao getInteracao() {
+        return this.interacao;
+    }
+
+    /**
+     * Obtém o ID do jogador.
+     * @return O ID do jogador.
+     */
+    public int getIdJogador() {
+        return this.idJogador;
+    }
+
+    /**
+     * Obtém o apelido do jogador.
+     * @return O apelido do jogador.
+     */
+    public String getApelido() {
+        return this.apelido;
+    }
+
+    /**
+     * Obtém o histórico de apostas liquidadas do jogador, lendo-o do
+     * ArquivoHistorico na primeira consulta, se ainda não estiver em memória.
+     * @return O histórico de apostas.
+     * @throws UncheckedIOException se o histórico não puder ser lido do arquivo.
+     */
+    public HistoricoApostas getHistorico() {
+        HistoricoApostas atual = this.historico;
+        if (atual != null) {
+            return atual;
+        }
+        synchronized (this) {
+            if (this.historico == null) {
+                try {
+                    this.historico = arquivoHistorico.carregar(tamanhoHistorico);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return this.historico;
+        }
+    }
+
+    /**
+     * Obtém o CPF do jogador.
+     * @return O CPF do jogador.
+     */
+    public String getCpf() {
+        return this.cpf;
+    }
+
+    /**
+     * Associa um diário ao jogador. A partir daí, todas as movimentações
+     * de crédito, de fichas e as apostas do jogador são registradas nele.
+     * @param diario O diário onde as movimentações serão registradas.
+     */
+    public void setDiario(Diario diario) {
+        this.diario = diario;
+    }
+
+    /**
+     * Associa um arquivo de histórico ao jogador. Deve ser chamado antes de
+     * carregar o Instantaneo; as apostas que já estiverem no histórico em
+     * memória são escritas no arquivo.
+     * @param arquivo O arquivo onde as apostas liquidadas serão guardadas.
+     * @throws IOException se não for possível escrever no arquivo.
+     */
+    public synchronized void setArquivoHistorico(ArquivoHistorico arquivo) throws IOException {
+        HistoricoApostas atual = getHistorico();
+        this.arquivoHistorico = arquivo;
+        this.tamanhoHistorico = gravarHistorico(atual);
+    }
+
+    /**
+     * Força para o disco as apostas já escritas no arquivo de histórico, se houver.
+     * @throws IOException se não for possível sincronizar o arquivo.
+     */
+    void sincronizarHistorico() throws IOException {
+        ArquivoHistorico arquivo;
+        synchronized (this) {
+            arquivo = this.arquivoHistorico;
+        }
+        if (arquivo != null) {
+            arquivo.sincronizar();
+        }
+    }
+
+    /**
+     * Associa o motor de expiração ao jogador e agenda a expiração dos lotes
+     * de crédito mais antigo e mais novo. A partir daí, cada depósito que cria
+     * um lote agenda a sua expiração, e cada expiração agenda a do novo lote
+     * mais antigo, então todos os lotes acabam agendados.
+     * @param expiracao O motor de expiração de créditos.
+     */
+    public synchronized void setExpiracao(ExpiracaoCredito expiracao) {
+        this.expiracao = expiracao;
+        this.diaExpiracaoAgendada = Credito.SEM_VALIDADE;
+        int maisAntigo = this.credito.getDiaValidade();
+        if (maisAntigo != Credito.SEM_VALIDADE) {
+            expiracao.agendar(this.idJogador, maisAntigo);
+        }
+        agendarExpiracao();
+    }
+
+    /**
+     * Expira os lotes de crédito do jogador cuja validade já passou,
+     * registrando a retirada no diário, e agenda a expiração do novo lote
+     * mais antigo.
+     * @param hoje O dia atual, em dias desde 01/01/1970.
+     * @return O valor expirado, em centavos, ou 0 se nenhum lote tiver expirado.
+     */
+    long expirarCredito(int hoje) {
+        long centavos;
+        long posicao;
+        synchronized (this) {
+            centavos = this.credito.expirar(hoje);
+            int maisAntigo = this.credito.getDiaValidade();
+            if (expiracao != null && maisAntigo != Credito.SEM_VALIDADE) {
+                expiracao.agendar(this.idJogador, maisAntigo);
+            }
+            if (centavos == 0) {
+                return 0;
+            }
+
+            // a expiração é registrada como uma retirada: ao reproduzir o diário, ela consome
+            // os mesmos lotes, pois os lotes expirados são sempre os mais antigos.
+            posicao = registrarCredito(-centavos);
+        }
+        sincronizarDiario(posicao);
+        Metricas.centavosExpirados.add(centavos);
+        return centavos;
+    }
+
+    /**
+     * Aplica ao crédito uma movimentação lida do diário, sem registrá-la novamente.
+     * Um depósito forma um lote com a validade contada a partir do dia em que foi registrado.
+     * @param centavos O valor movimentado, em centavos (negativo para retiradas).
+     * @param instante O instante do registro, em milissegundos desde 1970.
+     */
+    void aplicarCredito(long centavos, long instante) {
+        if (centavos >= 0) {
+            this.credito.adicionarLote(centavos, Dias.doInstante(instante) + Credito.DIAS_VALIDADE);
+        } else {
+            this.credito.tentarRemoverSaldo(-centavos);
+        }
+    }
+
+    /**
+     * Aplica às fichas uma movimentação lida do diário, sem registrá-la novamente.
+     * @param qtd A quantidade de fichas movimentada (negativa para remoções).
+     */
+    void aplicarFichas(int qtd) {
+        this.qtdFicha.addAndGet(qtd);
+    }
+
+    /**
+     * Adiciona ao histórico uma aposta lida do diário, sem registrá-la novamente.
+     * @param aposta A aposta restaurada.
+     * @param instante O instante em que a aposta foi registrada, em milissegundos desde 1970.
+     */
+    synchronized void restaurarAposta(Aposta aposta, long instante) {
+        guardarAposta(aposta, instante);
+    }
+
+    /**
+     * Captura o estado do jogador para um Instantaneo. A captura acontece sob a
+     * trava do jogador, então o estado é coerente com a sua versão no diário.
+     * Se houver um arquivo de histórico, apenas a quantidade de apostas e o
+     * tamanho do arquivo são guardados; senão, o histórico em memória é
+     * guardado com a sua quantidade de linhas, pois as linhas não mudam
+     * depois de incluídas.
+     * @return O estado capturado.
+     */
+    synchronized Instantaneo.EstadoJogador capturarEstado() {
+        Instantaneo.EstadoJogador estado = new Instantaneo.EstadoJogador();
+        estado.idJogador = this.idJogador;
+        estado.versaoDiario = this.versaoDiario;
+        estado.qtdFicha = this.qtdFicha.get();
+        this.credito.capturar(estado);
+        estado.qtdApostas = this.qtdApostas;
+        estado.maiorIdAposta = this.maiorIdAposta;
+        if (arquivoHistorico != null) {
+            estado.tamanhoHistorico = this.tamanhoHistorico;
+        } else {
+            estado.tamanhoHistorico = Instantaneo.HISTORICO_NO_INSTANTANEO;
+            estado.historico = this.historico;
+        }
+        return estado;
+    }
+
+    /**
+     * Restaura o estado do jogador a partir de um Instantaneo. Um histórico
+     * guardado no próprio instantâneo (nos formatos antigos) é escrito no
+     * arquivo de histórico, se houver; senão, o histórico só será lido do
+     * arquivo na primeira consulta.
+     * @param estado O estado lido do instantâneo.
+     * @throws IOException se não for possível escrever o histórico no arquivo.
+     */
+    synchronized void restaurarEstado(Instantaneo.EstadoJogador estado) throws IOException {
+        this.versaoDiario = estado.versaoDiario;
+        this.qtdFicha.set(estado.qtdFicha);
+        this.credito.restaurar(estado.valoresLotes, estado.diasLotes);
+        this.maiorIdAposta = estado.maiorIdAposta;
+        if (estado.historico != null) {
+            this.historico = estado.historico;
+            this.qtdApostas = estado.historico.getQtdApostas();
+            this.tamanhoHistorico = gravarHistorico(estado.historico);
+        } else if (arquivoHistorico != null) {
+            this.historico = null;
+            this.qtdApostas = estado.qtdApostas;
+            this.tamanhoHistorico = estado.tamanhoHistorico;
+        } else {
+            // o instantâneo aponta para um arquivo de histórico que este jogador não usa.
+            this.historico = new HistoricoApostas();
+            this.qtdApostas = 0;
+        }
+    }
+
+    /**
+     * Escreve no arquivo de histórico, se houver, todas as apostas de um
+     * histórico em memória, a partir do início do arquivo.
+     * Deve ser chamado com a trava do jogador adquirida.
+     * @return a posição do fim do histórico no arquivo, ou 0 se não houver arquivo.
+     */
+    private long gravarHistorico(HistoricoApostas historico) throws IOException {
+        long posicao = 0;
+        if (arquivoHistorico == null) {
+            return posicao;
+        }
+        for (int linha = 0; linha < historico.getQtdApostas(); linha++) {
+            int qtdJogos = historico.getQtdJogos(linha);
+            int[] palpites = new int[qtdJogos];
+            int[] fichas = new int[qtdJogos];
+            for (int jogo = 0; jogo < qtdJogos; jogo++) {
+                palpites[jogo] = historico.getPalpiteJogo(linha, jogo);
+                fichas[jogo] = historico.getFichasJogo(linha, jogo);
+            }
+            posicao = arquivoHistorico.gravar(posicao, historico.getIdAposta(linha), historico.getInstante(linha),
+                    historico.getNumeroSorteado(linha), historico.getPremioTotal(linha), palpites, fichas);
+        }
+        return posicao;
+    }
+
+    /**
+     * Avança a versão do jogador para a versão de um registro lido do diário.
+     * @param versao A versão do registro.
+     * @return true se o registro ainda não está refletido no jogador e deve ser aplicado.
+     */
+    synchronized boolean avancarVersaoDiario(long versao) {
+        if (versao <= this.versaoDiario) {
+            return false;
+        }
+        this.versaoDiario = versao;
+        return true;
+    }
+
+    /**
+     * Adiciona crédito à conta do jogador, registrando a movimentação no diário.
+     * @param centavos O valor a ser adicionado, em centavos.
+     */
+    private void depositar(long centavos) {
+        long inicio = System.nanoTime();
+        long posicao;
+        synchronized (this) {
+            this.credito.adicionarSaldo(centavos);
+            posicao = registrarCredito(centavos);
+            agendarExpiracao();
+        }
+        sincronizarDiario(posicao);
+        Metricas.centavosDepositados.add(centavos);
+        Metricas.DEPOSITO.registrarDesde(inicio);
+    }
+
+    /**
+     * Remove crédito da conta do jogador, caso haja saldo disponível,
+     * registrando a movimentação no diário.
+     * @param centavos O valor a ser removido, em centavos.
+     * @return true se a remoção for bem-sucedida, caso contrário, false.
+     */
+    private boolean debitar(long centavos) {
+        long inicio = System.nanoTime();
+        long posicao;
+        synchronized (this) {
+            if (!this.credito.tentarRemoverSaldo(centavos)) {
+                return false;
+            }
+            posicao = registrarCredito(-centavos);
+        }
+        sincronizarDiario(posicao);
+        Metricas.centavosRetirados.add(centavos);
+        Metricas.RETIRADA.registrarDesde(inicio);
+        return true;
+    }
+
+    /**
+     * Adiciona uma aposta liquidada ao histórico de apostas, registrando-a no diário.
+     * @param aposta A aposta liquidada.
+     */
+    void incluirAposta(Aposta aposta) {
+        long posicao;
+        synchronized (this) {
+            guardarAposta(aposta, System.currentTimeMillis());
+            posicao = diario != null ? diario.registrarAposta(this.idJogador, ++versaoDiario, aposta) : -1;
+        }
+        sincronizarDiario(posicao);
+        BarramentoEventos.getPadrao().publicarApostaLiquidada(this.idJogador, aposta.getIdAposta(), aposta.getNumeroSorteado(),
+                aposta.getTotalFichas(), aposta.getPremioTotal(), aposta.getListaJogos().size());
+    }
+
+    /**
+     * Credita o prêmio e inclui no histórico uma aposta liquidada por uma
+     * MesaRoleta, registrando ambos no diário sem aguardar a gravação em
+     * disco, para que a mesa sincronize o diário uma única vez por rodada.
+     * @param aposta  A aposta liquidada.
+     * @param premio  O prêmio a creditar, em fichas.
+     * @return a posição do último registro no diário, a ser passada para
+     *         {@link #sincronizarDiario(long)}, ou -1 se não houver diário.
+     */
+    long registrarLiquidacao(Aposta aposta, int premio) {
+        long posicao;
+        synchronized (this) {
+            if (premio > 0) {
+                this.qtdFicha.set(Math.addExact(this.qtdFicha.get(), premio));
+                registrarFichas(premio);
+            }
+            guardarAposta(aposta, System.currentTimeMillis());
+            posicao = diario != null ? diario.registrarAposta(this.idJogador, ++versaoDiario, aposta) : -1;
+        }
+        BarramentoEventos.getPadrao().publicarApostaLiquidada(this.idJogador, aposta.getIdAposta(), aposta.getNumeroSorteado(),
+                aposta.getTotalFichas(), aposta.getPremioTotal(), aposta.getListaJogos().size());
+        return posicao;
+    }
+
+    /**
+     * Guarda uma aposta liquidada no arquivo de histórico, se houver, e no
+     * histórico em memória, se ele já tiver sido lido.
+     * Deve ser chamado com a trava do jogador adquirida.
+     */
+    private void guardarAposta(Aposta aposta, long instante) {
+        if (arquivoHistorico != null) {
+            try {
+                tamanhoHistorico = arquivoHistorico.gravar(tamanhoHistorico, aposta, instante);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (historico != null) {
+            historico.incluir(aposta, instante);
+        }
+        qtdApostas++;
+        maiorIdAposta = Math.max(maiorIdAposta, aposta.getIdAposta());
+    }
+
+    /**
+     * Agenda a expiração do lote de crédito mais novo, se houver um motor de
+     * expiração e o lote ainda não tiver sido agendado. Deve ser chamado com
+     * a trava do jogador adquirida.
+     */
+    private void agendarExpiracao() {
+        int validade = this.credito.getDiaValidadeMaisNovo();
+        if (expiracao != null && validade != Credito.SEM_VALIDADE && validade != diaExpiracaoAgendada) {
+            diaExpiracaoAgendada = validade;
+            expiracao.agendar(this.idJogador, validade);
+        }
+    }
+
+    /**
+     * Registra no diário, se houver, uma movimentação de crédito.
+     * Deve ser chamado com a trava do jogador adquirida.
+     * @return a posição do registro no diário, ou -1 se não houver diário.
+     */
+    private long registrarCredito(long centavos) {
+        return diario != null ? diario.registrarCredito(this.idJogador, ++versaoDiario, centavos) : -1;
+    }
+
+    /**
+     * Registra no diário, se houver, uma movimentação de fichas.
+     * Deve ser chamado com a trava do jogador adquirida.
+     * @return a posição do registro no diário, ou -1 se não houver diário.
+     */
+    private long registrarFichas(int qtd) {
+        return diario != null ? diario.registrarFichas(this.idJogador, ++versaoDiario, qtd) : -1;
+    }
+
+    /**
+     * Aguarda a gravação em disco do registro na posição informada, fora da trava do jogador.
+     * @param posicao A posição devolvida pelo registro, ou -1 se não houver diário.
+     */
+    void sincronizarDiario(long posicao) {
+        if (posicao >= 0) {
+            diario.sincronizar(posicao);
+        }
     }
 
 }
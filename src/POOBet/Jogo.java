@@ -4,13 +4,77 @@ package POOBet;
  * A classe Jogo é responsável por armazenar os palpites realizados pelo usuário.
  * Ela encapsula os atributos e métodos necessários para gerenciar os
  * palpites dados pelo usuário.
+ * <p>
+ * Cada palpite é formado por um TipoAposta e um alvo numérico, de modo que
+ * verificar se ele ganhou ou calcular o seu prêmio não compara nenhuma String:
+ * o prêmio para o número sorteado é uma única consulta à matriz de prêmios,
+ * pelo índice do palpite guardado na criação do Jogo.
  */
 public class Jogo {
 
     private int idJogo;
-    private String corApostada;
+    private TipoAposta tipo;
+    private int alvo;
+    private int indice;
     private int qtdFichas;
-    private static int proximoIdJogo = 1;
+    private static GeradorIds geradorIds = GeradorIds.emMemoria();
+
+    /**
+     * Construtor da classe Jogo.
+     * Cria uma instância de Jogo com o tipo de palpite, o seu alvo e a quantidade de fichas apostadas.
+     *
+     * @param tipo O tipo do palpite.
+     * @param alvo O alvo do palpite, conforme o tipo (índice da cor, número, dúzia...).
+     * @param qtdFichasApostadas A quantidade de fichas apostadas.
+     * @throws IllegalArgumentException se o alvo não for válido para o tipo, se a quantidade
+     *                                  de fichas não for positiva ou se o prêmio não couber em um int.
+     */
+    public Jogo(TipoAposta tipo, int alvo, int qtdFichasApostadas) {
+        if (!tipo.isAlvoValido(alvo)) {
+            throw new IllegalArgumentException("Alvo inválido para o palpite " + tipo + ": " + alvo);
+        }
+        if (qtdFichasApostadas <= 0) {
+            throw new IllegalArgumentException("A quantidade de fichas apostada deve ser positiva.");
+        }
+        if ((long) qtdFichasApostadas * tipo.getPremio(alvo) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("O prêmio do palpite " + tipo.descrever(alvo) + " ultrapassa o limite de fichas.");
+        }
+        this.idJogo = geradorIds.proximoId();
+        this.tipo = tipo;
+        this.alvo = alvo;
+        this.indice = tipo.getIndice(alvo);
+        this.qtdFichas = qtdFichasApostadas;
+    }
+
+    /**
+     * Construtor usado na restauração de palpites já liquidados.
+     */
+    private Jogo(int idJogo, TipoAposta tipo, int alvo, int qtdFichasApostadas) {
+        this.idJogo = idJogo;
+        this.tipo = tipo;
+        this.alvo = alvo;
+        this.indice = tipo.getIndice(alvo);
+        this.qtdFichas = qtdFichasApostadas;
+    }
+
+    /**
+     * Recria um palpite já liquidado, lido do diário ou do histórico. O ID do
+     * palpite não é guardado nesses registros, então o palpite restaurado
+     * fica com o ID 0 e nenhum ID novo é consumido do gerador. A quantidade
+     * de fichas não é validada, pois registros antigos podem ter palpites sem fichas.
+     *
+     * @param tipo               O tipo do palpite.
+     * @param alvo               O alvo do palpite.
+     * @param qtdFichasApostadas A quantidade de fichas apostadas.
+     * @return O palpite restaurado.
+     * @throws IllegalArgumentException se o alvo não for válido para o tipo.
+     */
+    static Jogo restaurar(TipoAposta tipo, int alvo, int qtdFichasApostadas) {
+        if (!tipo.isAlvoValido(alvo)) {
+            throw new IllegalArgumentException("Alvo inválido para o palpite " + tipo + ": " + alvo);
+        }
+        return new Jogo(0, tipo, alvo, qtdFichasApostadas);
+    }
 
     /**
      * Construtor da classe Jogo.
@@ -19,22 +83,83 @@ public class Jogo {
      * @param corApostada A cor na qual o jogador está apostando.
      * @param qtdFichasApostadas A quantidade de fichas apostadas.
      */
-    public Jogo(String corApostada, int qtdFichasApostadas) {
-        this.idJogo = proximoIdJogo;
-        proximoIdJogo++;
-        this.corApostada = corApostada;
-        this.qtdFichas = qtdFichasApostadas;
+    public Jogo(Cor corApostada, int qtdFichasApostadas) {
+        this(TipoAposta.COR, corApostada.ordinal(), qtdFichasApostadas);
     }
+
     /**
-     * Calcula o prêmio com base na cor apostada e na quantidade de fichas apostadas.
+     * Calcula o prêmio pago caso o palpite ganhe, com base no tipo, no alvo
+     * e na quantidade de fichas apostadas.
      *
      * @return O valor do prêmio calculado.
      */
     public int calcularPremio() {
-        if (this.corApostada.equals("Verde")) {
-            return this.qtdFichas * 14;
-        }
-        return this.qtdFichas * 2;
+        return Math.multiplyExact(this.qtdFichas, this.tipo.getPremio(this.alvo));
+    }
+
+    /**
+     * Calcula o prêmio do palpite para um número sorteado.
+     *
+     * @param numeroSorteado O número sorteado na roleta.
+     * @return O prêmio, ou 0 se o palpite não ganhou.
+     */
+    public int calcularPremio(int numeroSorteado) {
+        return Math.multiplyExact(this.qtdFichas, TipoAposta.getPremio(numeroSorteado, this.indice));
+    }
+
+    /**
+     * Verifica se o palpite ganha com o número sorteado.
+     *
+     * @param numeroSorteado O número sorteado na roleta.
+     * @return true se o palpite ganhou.
+     */
+    public boolean ganha(int numeroSorteado) {
+        return TipoAposta.getPremio(numeroSorteado, this.indice) != 0;
+    }
+
+    /**
+     * Substitui o gerador de IDs dos jogos.
+     *
+     * @param gerador O novo gerador de IDs.
+     */
+    public static void setGeradorIds(GeradorIds gerador) {
+        geradorIds = gerador;
+    }
+
+    /**
+     * Obtém o tipo do palpite.
+     *
+     * @return O tipo do palpite.
+     */
+    public TipoAposta getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtém o alvo do palpite.
+     *
+     * @return O alvo do palpite.
+     */
+    public int getAlvo() {
+        return alvo;
+    }
+
+    /**
+     * Obtém a descrição do palpite, como exibida ao jogador.
+     *
+     * @return A descrição do palpite.
+     */
+    public String getDescricao() {
+        return this.tipo.descrever(this.alvo);
+    }
+
+    /**
+     * Obtém a quantidade de fichas apostadas.
+     *
+     * @return A quantidade de fichas apostadas.
+     */
+    public int getQtdFichas() {
+        return qtdFichas;
     }
 
 }
@@ -0,0 +1,218 @@
+package POOBet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe Json reúne um leitor e um escritor mínimos de JSON, usados pelo
+ * ServidorApostas para não depender de bibliotecas externas.
+ * <p>
+ * Objetos são lidos como Map, vetores como List, números inteiros como Long,
+ * números com parte decimal como Double, além de String, Boolean e null.
+ */
+public class Json {
+
+    private final String texto;
+    private int posicao;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Lê um documento JSON.
+     * @param texto o documento.
+     * @return o valor lido.
+     * @throws IllegalArgumentException se o documento não for um JSON válido.
+     */
+    public static Object ler(String texto) {
+        Json leitor = new Json(texto);
+        Object valor = leitor.lerValor();
+        leitor.pularEspacos();
+        if (leitor.posicao != texto.length()) {
+            throw leitor.erro("conteúdo depois do fim do documento");
+        }
+        return valor;
+    }
+
+    /**
+     * Escreve um texto como uma string JSON, entre aspas e com os caracteres especiais escapados.
+     * @param sb    onde o texto é escrito.
+     * @param valor o texto.
+     * @return o próprio StringBuilder.
+     */
+    public static StringBuilder escreverTexto(StringBuilder sb, String valor) {
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private Object lerValor() {
+        pularEspacos();
+        if (posicao >= texto.length()) {
+            throw erro("fim inesperado do documento");
+        }
+        char c = texto.charAt(posicao);
+        switch (c) {
+            case '{': return lerObjeto();
+            case '[': return lerVetor();
+            case '"': return lerTexto();
+            case 't': return lerLiteral("true", Boolean.TRUE);
+            case 'f': return lerLiteral("false", Boolean.FALSE);
+            case 'n': return lerLiteral("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return lerNumero();
+                }
+                throw erro("caractere inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> lerObjeto() {
+        Map<String, Object> objeto = new LinkedHashMap<String, Object>();
+        posicao++;
+        pularEspacos();
+        if (consumir('}')) {
+            return objeto;
+        }
+        do {
+            pularEspacos();
+            if (posicao >= texto.length() || texto.charAt(posicao) != '"') {
+                throw erro("esperado o nome de um campo");
+            }
+            String nome = lerTexto();
+            pularEspacos();
+            if (!consumir(':')) {
+                throw erro("esperado ':'");
+            }
+            objeto.put(nome, lerValor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir('}')) {
+            throw erro("esperado '}'");
+        }
+        return objeto;
+    }
+
+    private List<Object> lerVetor() {
+        List<Object> vetor = new ArrayList<Object>();
+        posicao++;
+        pularEspacos();
+        if (consumir(']')) {
+            return vetor;
+        }
+        do {
+            vetor.add(lerValor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir(']')) {
+            throw erro("esperado ']'");
+        }
+        return vetor;
+    }
+
+    private String lerTexto() {
+        StringBuilder sb = new StringBuilder();
+        posicao++;
+        while (posicao < texto.length()) {
+            char c = texto.charAt(posicao++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (posicao >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(posicao++);
+            switch (escape) {
+                case '"': case '\\': case '/': sb.append(escape); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (posicao + 4 > texto.length()) {
+                        throw erro("escape unicode incompleto");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(posicao, posicao + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw erro("escape unicode inválido");
+                    }
+                    posicao += 4;
+                    break;
+                default:
+                    throw erro("escape inválido '\\" + escape + "'");
+            }
+        }
+        throw erro("texto sem aspas de fechamento");
+    }
+
+    private Number lerNumero() {
+        int inicio = posicao;
+        boolean decimal = false;
+        while (posicao < texto.length()) {
+            char c = texto.charAt(posicao);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            posicao++;
+        }
+        String numero = texto.substring(inicio, posicao);
+        try {
+            return decimal ? (Number) Double.valueOf(numero) : (Number) Long.valueOf(numero);
+        } catch (NumberFormatException e) {
+            throw erro("número inválido " + numero);
+        }
+    }
+
+    private Object lerLiteral(String literal, Object valor) {
+        if (!texto.startsWith(literal, posicao)) {
+            throw erro("valor inválido");
+        }
+        posicao += literal.length();
+        return valor;
+    }
+
+    private boolean consumir(char c) {
+        if (posicao < texto.length() && texto.charAt(posicao) == c) {
+            posicao++;
+            return true;
+        }
+        return false;
+    }
+
+    private void pularEspacos() {
+        while (posicao < texto.length() && Character.isWhitespace(texto.charAt(posicao))) {
+            posicao++;
+        }
+    }
+
+    private IllegalArgumentException erro(String motivo) {
+        return new IllegalArgumentException("JSON inválido na posição " + posicao + ": " + motivo + ".");
+    }
+
+}
@@ -1,37 +1,63 @@
 package POOBet;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * A classe MenuGUI é responsável pela interface gráfica
  * do programa. Ela encapsula os métodos responsáveis pela
- * exibição de elemento, além de possuir alguns métodos
- * estáticos utilitários.
+ * exibição de elementos.
+ * <p>
+ * As ações dos botões não são executadas na thread de eventos do Swing,
+ * mas em uma thread própria, para que gravações em disco e a liquidação
+ * de apostas não congelem a janela. Enquanto uma ação é executada, os
+ * botões ficam desabilitados; as janelas de diálogo abertas pela ação são
+ * exibidas na thread de eventos pela classe InOut.
+ * <p>
+ * A imagem de fundo é carregada do classpath por um SwingWorker depois que
+ * a janela já está visível, usando o cache da classe ImagemFundo.
  */
 public class MenuGUI {
 
     private JFrame janela;
     private JLayeredPane container = new JLayeredPane();
     private JPanel menu = new JPanel();
+
+    // executa as ações dos botões fora da thread de eventos, uma de cada vez e na ordem dos cliques.
+    private final ExecutorService executorAcoes = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "menu-acoes");
+        t.setDaemon(true);
+        return t;
+    });
     protected static Dimension dimensoesTela = Toolkit.getDefaultToolkit().getScreenSize();
 
+    /**
+     * Instancia um novo objeto da classe e inicializa seus principais atributos,
+     * sem cache para a imagem de fundo.
+     * @param recursoBackground nome do recurso no classpath da imagem do plano de fundo.
+     */
+    public MenuGUI(String recursoBackground, Jogador jogador) {
+        this(recursoBackground, null, jogador);
+    }
+
     /**
      * Instancia um novo objeto da classe e inicializa seus principais atributos.
-     * @param caminhoBackground caminho do arquivo para a imagem do plano de fundo.
+     * Deve ser chamado na thread de eventos do Swing.
+     * @param recursoBackground nome do recurso no classpath da imagem do plano de fundo.
+     * @param diretorioCache    diretório do cache da imagem redimensionada, ou null.
      */
-    public MenuGUI(String caminhoBackground, Jogador jogador) {
+    public MenuGUI(String recursoBackground, Path diretorioCache, Jogador jogador) {
 
-        // Cria a janela e define seu background.
+        // Cria a janela; o background é carregado depois que ela aparece.
         setJanela("POO Bet");
-        JLabel imagemFundo = criarImagemFundo(caminhoBackground);
+        JLabel imagemFundo = criarImagemFundo();
 
         // Modifica o tamanho do menu
         menu.setLayout(new FlowLayout(FlowLayout.CENTER));
@@ -42,28 +68,28 @@ public class MenuGUI {
         menu.setBounds(xMenu,yMenu,widthMenu,heightMenu);
 
         // Cria o botão de adição de saldo
-        adicionarBotao("Adicionar Saldo", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.adicionarCredito();}});
+        adicionarBotao("Adicionar Saldo", jogador::adicionarCredito);
 
         // Cria o botão de consulta de saldo
-        adicionarBotao("Consultar Saldo", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.consultarCredito();}});
+        adicionarBotao("Consultar Saldo", jogador::consultarCredito);
 
         // Cria o botão de retirada de saldo
-        adicionarBotao("Retirar Saldo", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.retirarCredito();}});
+        adicionarBotao("Retirar Saldo", jogador::retirarCredito);
 
         // Cria o botão de conversão de saldo
-        adicionarBotao("Converter Saldo em Fichas", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.converterSaldoParaFichas();}});
+        adicionarBotao("Converter Saldo em Fichas", jogador::converterSaldoParaFichas);
 
         // Cria o botão de consulta de fichas
-        adicionarBotao("Consultar Fichas", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.consultarFichas();}});
+        adicionarBotao("Consultar Fichas", jogador::consultarFichas);
 
         // Cria o botão de conversão de fichas
-        adicionarBotao("Converter Fichas em Saldo", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.converterFichasParaSaldo();}});
+        adicionarBotao("Converter Fichas em Saldo", jogador::converterFichasParaSaldo);
 
         // Cria o botão de adicionar nova aposta
-        adicionarBotao("Adicionar Nova Aposta", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.criarAposta();}});
+        adicionarBotao("Adicionar Nova Aposta", jogador::criarAposta);
 
         // Cria o botão de consultar apostas
-        adicionarBotao("Consultar Apostas", new ActionListener() {@Override public void actionPerformed(ActionEvent e) {jogador.consultarApostas();}});
+        adicionarBotao("Consultar Apostas", jogador::consultarApostas);
 
         // Adiciona os elementos criados ao container.
         container.add(imagemFundo,999);
@@ -73,6 +99,8 @@ public class MenuGUI {
         janela.add(container);
         janela.setVisible(true);
 
+        carregarImagemFundo(imagemFundo, recursoBackground, diretorioCache);
+
     }
 
     /**
@@ -92,74 +120,95 @@ public class MenuGUI {
 
     /**
      * Essa função é responsável por adicionar um botão no menu.
-     * @param texto             do botão.
-     * @param actionListener    função a ser executada quando o botão é clicado.
-     * @see ActionListener
+     * @param texto  do botão.
+     * @param acao   função a ser executada, fora da thread de eventos, quando o botão é clicado.
+     * @see #executarAcao(Runnable)
      */
-    private void adicionarBotao(String texto, ActionListener actionListener) {
+    private void adicionarBotao(String texto, Runnable acao) {
         JButton botao = new JButton();
         botao.setText(texto);
-        botao.addActionListener(actionListener);
+        botao.addActionListener(e -> executarAcao(acao));
         botao.setPreferredSize(new Dimension(menu.getSize().width, 30));
         menu.add(botao);
     }
 
     /**
-     * Fecha a janela.
+     * Executa a ação de um botão na thread de ações, desabilitando os botões
+     * do menu até que ela termine. O fim da ação, e um eventual erro, são
+     * publicados de volta na thread de eventos com SwingUtilities.invokeLater.
+     * @param acao a ação a ser executada.
      */
-    public void fecharJanela() {
-        janela.dispatchEvent(new WindowEvent(janela, WindowEvent.WINDOW_CLOSING));
+    private void executarAcao(Runnable acao) {
+        habilitarBotoes(false);
+        executorAcoes.execute(() -> {
+            try {
+                acao.run();
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> InOut.MsgDeErro("Erro", "Não foi possível concluir a operação:\n" + e.getMessage()));
+            } finally {
+                SwingUtilities.invokeLater(() -> habilitarBotoes(true));
+            }
+        });
     }
 
     /**
-     * Retorna um objeto ImageIcon a partir de um caminho de arquivo de imagem.
-     * @param caminhoArquivo caminho do arquivo da imagem.
-     * @return o ImageIcon correspondente a imagem.
-     * @see ImageIcon
+     * Habilita ou desabilita todos os botões do menu.
+     * @param habilitados true para habilitar os botões.
      */
-    public static ImageIcon criarImageIcon(String caminhoArquivo) {
-
-        BufferedImage imagem = null;
-        try {
-            imagem = ImageIO.read(new File(caminhoArquivo));
-        } catch (IOException e) {
-            InOut.MsgDeErro("Erro na imagem","A imagem selecionada para o fundo não conseguiu ser localizada, confira o erro:\n" + e.getMessage());
+    private void habilitarBotoes(boolean habilitados) {
+        for (Component componente : menu.getComponents()) {
+            componente.setEnabled(habilitados);
         }
-
-        return new ImageIcon(imagem);
-
     }
 
     /**
-     * Retorna um ImageIcon redimensionado de acordo com os parâmetros repassados.
-     * @param imagem o objeto ImageIcon da imagem a ser redimensionada.
-     * @param dimensoes as dimensões para qual a imagem será redimensionada.
-     * @return o objeto ImageIcon da imagem redimensionada.
-     * @see Dimension
-     * @see ImageIcon
+     * Fecha a janela.
      */
-    public static ImageIcon redimensionarImagemParaTela(ImageIcon imagem, Dimension dimensoes) {
-
-        Image imgRedimensionada = imagem.getImage().getScaledInstance(dimensoes.width, dimensoes.height, Image.SCALE_DEFAULT);
-
-        return new ImageIcon(imgRedimensionada);
+    public void fecharJanela() {
+        janela.dispatchEvent(new WindowEvent(janela, WindowEvent.WINDOW_CLOSING));
     }
 
     /**
-     * Retorna um componente de imagem de fundo a partir de um caminho de arquivo.
-     * @param caminhoArquivo caminho do arquivo da imagem de fundo.
-     * @return o componente que contêm a imagem de fundo.
+     * Retorna um componente, ainda vazio, para a imagem de fundo.
+     * @return o componente que conterá a imagem de fundo.
      * @see JLabel
      */
-    private static JLabel criarImagemFundo (String caminhoArquivo) {
+    private static JLabel criarImagemFundo() {
 
         JLabel imagemFundo = new JLabel();
-        ImageIcon imagem = criarImageIcon(caminhoArquivo);
-        ImageIcon imagemRedimensionada = redimensionarImagemParaTela(imagem, dimensoesTela);
-        imagemFundo.setIcon(imagemRedimensionada);
         imagemFundo.setBounds(0,0,dimensoesTela.width, dimensoesTela.height);
 
         return imagemFundo;
     }
 
+    /**
+     * Carrega e redimensiona a imagem de fundo em segundo plano e a exibe no
+     * componente quando estiver pronta.
+     * @param imagemFundo     o componente da imagem de fundo.
+     * @param recurso         nome do recurso no classpath da imagem.
+     * @param diretorioCache  diretório do cache da imagem redimensionada, ou null.
+     * @see ImagemFundo
+     */
+    private static void carregarImagemFundo(JLabel imagemFundo, String recurso, Path diretorioCache) {
+
+        Dimension tamanho = new Dimension(dimensoesTela);
+        new SwingWorker<BufferedImage, Void>() {
+            @Override
+            protected BufferedImage doInBackground() throws IOException {
+                return ImagemFundo.carregar(recurso, tamanho, diretorioCache);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    imagemFundo.setIcon(new ImageIcon(get()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    InOut.MsgDeErro("Erro na imagem","A imagem selecionada para o fundo não conseguiu ser localizada, confira o erro:\n" + e.getCause().getMessage());
+                }
+            }
+        }.execute();
+    }
+
 }
\ No newline at end of file
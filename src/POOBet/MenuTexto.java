@@ -0,0 +1,72 @@
+package POOBet;
+
+/**
+ * A classe MenuTexto oferece as mesmas ações do MenuGUI por meio de uma
+ * Interacao de texto, como a InteracaoConsole ou a InteracaoRoteiro. As
+ * ações são executadas na própria thread, uma depois da outra, até que o
+ * usuário escolha sair ou que as entradas acabem.
+ *
+ * @see MenuGUI
+ */
+public class MenuTexto {
+
+    private static final String[] OPCOES = {
+        "Adicionar Saldo", "Consultar Saldo", "Retirar Saldo", "Converter Saldo em Fichas",
+        "Consultar Fichas", "Converter Fichas em Saldo", "Adicionar Nova Aposta", "Consultar Apostas", "Sair"
+    };
+
+    private final Jogador jogador;
+    private final Interacao interacao;
+
+    /**
+     * Cria o menu.
+     * @param jogador   o jogador que executa as ações.
+     * @param interacao a interação usada pelo menu; o jogador deve usar a mesma.
+     */
+    public MenuTexto(Jogador jogador, Interacao interacao) {
+        this.jogador = jogador;
+        this.interacao = interacao;
+    }
+
+    /**
+     * Exibe o menu e executa as ações escolhidas até que o usuário escolha
+     * sair ou que as entradas acabem.
+     * @return a quantidade de ações executadas.
+     */
+    public int executar() {
+        int qtdAcoes = 0;
+        try {
+            while (true) {
+                int opcao = interacao.leOpcoes("POO Bet", "Escolha uma opção.", OPCOES);
+                if (opcao == OPCOES.length - 1) {
+                    return qtdAcoes;
+                }
+                try {
+                    executarAcao(opcao);
+                } catch (Interacao.FimDasEntradas e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    interacao.MsgDeErro("Erro", "Não foi possível concluir a operação:\n" + e.getMessage());
+                }
+                qtdAcoes++;
+            }
+        } catch (Interacao.FimDasEntradas e) {
+            return qtdAcoes;
+        }
+    }
+
+    private void executarAcao(int opcao) {
+        switch (opcao) {
+            case 0: jogador.adicionarCredito(); break;
+            case 1: jogador.consultarCredito(); break;
+            case 2: jogador.retirarCredito(); break;
+            case 3: jogador.converterSaldoParaFichas(); break;
+            case 4: jogador.consultarFichas(); break;
+            case 5: jogador.converterFichasParaSaldo(); break;
+            case 6: jogador.criarAposta(); break;
+            case 7: jogador.consultarApostas(); break;
+            default: throw new IllegalArgumentException("Opção inválida: " + opcao);
+        }
+    }
+
+}
@@ -0,0 +1,408 @@
+package POOBet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A classe MesaRoleta representa uma mesa compartilhada por vários jogadores.
+ * Os jogadores apostam em uma rodada aberta; ao fim do tempo da rodada, um
+ * único sorteio liquida todas as apostas de uma só vez e os prêmios são
+ * creditados aos jogadores. Uma nova rodada é aberta no mesmo instante em
+ * que a anterior é fechada.
+ * <p>
+ * Os prêmios e as apostas de todos os jogadores da rodada são registrados no
+ * Diario sem esperar pela gravação em disco, que é aguardada uma única vez
+ * ao fim da liquidação.
+ * <p>
+ * As fichas são somadas por cor já no momento da aposta: cada jogador recebe
+ * uma vaga na rodada e as suas fichas ficam em um vetor denso indexado por
+ * vaga e cor. Após o sorteio, os ganhadores são pagos em uma única passada
+ * por esse vetor, e o total apostado em cada cor está sempre disponível em
+ * tempo constante, para verificações de risco.
+ * <p>
+ * Cada aposta reserva a exposição da mesa em um ControleExposicao antes de
+ * ser aceita, e a reserva é liberada quando a rodada é liquidada. Assim, a
+ * mesa pode recusar ou reduzir apostas que a fariam pagar mais do que o
+ * limite configurado caso uma cor seja sorteada.
+ * <p>
+ * Várias threads podem apostar ao mesmo tempo; apenas a troca de rodada
+ * impede, por um instante, a inclusão de novas apostas.
+ */
+public class MesaRoleta {
+
+    /** Quantidade padrão de jogadores diferentes aceitos em uma rodada. */
+    public static final int CAPACIDADE_PADRAO = 1 << 16;
+
+    // prêmio pago por ficha para cada cor, indexado pelo ordinal da Cor.
+    private static final int[] premioPorCor = new int[Cor.getQtdCores()];
+
+    static {
+        for (int i = 0; i < premioPorCor.length; i++) {
+            premioPorCor[i] = Cor.doIndice(i).getPremio();
+        }
+    }
+
+    /**
+     * As apostas de uma rodada, somadas por jogador e por cor. Cada mesa tem
+     * duas rodadas que se alternam: enquanto uma recebe apostas, a outra é
+     * liquidada e depois limpa para ser reutilizada.
+     */
+    private static class Rodada {
+        long idRodada;
+        final ConcurrentHashMap<Jogador, Integer> vagas;
+        final Jogador[] jogadores;
+        final AtomicInteger qtdJogadores = new AtomicInteger();
+        final AtomicIntegerArray fichas;
+        final LongAdder[] totalPorCor = new LongAdder[Cor.getQtdCores()];
+        final LongAdder qtdApostas = new LongAdder();
+
+        Rodada(long idRodada, int capacidade) {
+            this.idRodada = idRodada;
+            this.vagas = new ConcurrentHashMap<Jogador, Integer>(capacidade);
+            this.jogadores = new Jogador[capacidade];
+            this.fichas = new AtomicIntegerArray(capacidade * Cor.getQtdCores());
+            for (int i = 0; i < totalPorCor.length; i++) {
+                totalPorCor[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Obtém a vaga do jogador na rodada, reservando uma nova se necessário.
+         * @return a vaga do jogador, ou -1 se a rodada estiver cheia.
+         */
+        int obterVaga(Jogador jogador) {
+            Integer vaga = vagas.get(jogador);
+            if (vaga != null) {
+                return vaga;
+            }
+            try {
+                return vagas.computeIfAbsent(jogador, j -> {
+                    int nova = qtdJogadores.getAndIncrement();
+                    if (nova >= jogadores.length) {
+                        qtdJogadores.decrementAndGet();
+                        throw new IllegalStateException();
+                    }
+                    jogadores[nova] = j;
+                    return nova;
+                });
+            } catch (IllegalStateException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * Limpa a rodada para reutilizá-la, zerando apenas as vagas utilizadas.
+         */
+        void limpar(long novoIdRodada) {
+            int utilizadas = qtdJogadores.get();
+            for (int i = 0; i < utilizadas * totalPorCor.length; i++) {
+                fichas.set(i, 0);
+            }
+            Arrays.fill(jogadores, 0, utilizadas, null);
+            qtdJogadores.set(0);
+            vagas.clear();
+            for (LongAdder total : totalPorCor) {
+                total.reset();
+            }
+            qtdApostas.reset();
+            idRodada = novoIdRodada;
+        }
+    }
+
+    private final long duracaoRodadaMillis;
+    private final ReentrantReadWriteLock travaRodada = new ReentrantReadWriteLock();
+    private volatile Rodada rodadaAtual;
+    private Rodada rodadaReserva;
+    private ScheduledExecutorService agendador;
+    private volatile Consumer<ResultadoRodada> ouvinte;
+    private final ControleExposicao exposicao;
+
+    /**
+     * Cria uma mesa com rodadas da duração informada e a capacidade padrão.
+     * As rodadas só passam a ser fechadas automaticamente depois de {@link #iniciar()}.
+     * @param duracaoRodadaMillis a duração de cada rodada, em milissegundos.
+     */
+    public MesaRoleta(long duracaoRodadaMillis) {
+        this(duracaoRodadaMillis, CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Cria uma mesa com rodadas da duração informada.
+     * @param duracaoRodadaMillis  a duração de cada rodada, em milissegundos.
+     * @param capacidade           a quantidade máxima de jogadores diferentes por rodada.
+     */
+    public MesaRoleta(long duracaoRodadaMillis, int capacidade) {
+        this(duracaoRodadaMillis, capacidade, new ControleExposicao());
+    }
+
+    /**
+     * Cria uma mesa com rodadas da duração informada e limite de exposição.
+     * @param duracaoRodadaMillis  a duração de cada rodada, em milissegundos.
+     * @param capacidade           a quantidade máxima de jogadores diferentes por rodada.
+     * @param exposicao            o controle que limita quanto a mesa pode pagar em cada cor.
+     */
+    public MesaRoleta(long duracaoRodadaMillis, int capacidade, ControleExposicao exposicao) {
+        this.duracaoRodadaMillis = duracaoRodadaMillis;
+        this.exposicao = exposicao;
+        this.rodadaAtual = new Rodada(1, capacidade);
+        this.rodadaReserva = new Rodada(2, capacidade);
+    }
+
+    /**
+     * Define a função chamada com o resultado de cada rodada liquidada.
+     * @param ouvinte a função que recebe os resultados.
+     */
+    public void setOuvinte(Consumer<ResultadoRodada> ouvinte) {
+        this.ouvinte = ouvinte;
+    }
+
+    /**
+     * Inicia o fechamento automático das rodadas.
+     */
+    public synchronized void iniciar() {
+        if (agendador != null) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mesa-roleta");
+            t.setDaemon(true);
+            return t;
+        });
+        // uma exceção que escapasse da tarefa cancelaria o agendamento, e a mesa pararia de fechar rodadas.
+        agendador.scheduleAtFixedRate(() -> {
+            try {
+                fecharRodada();
+            } catch (RuntimeException e) {
+                System.err.println("Não foi possível fechar a rodada da mesa: " + e);
+            }
+        }, duracaoRodadaMillis, duracaoRodadaMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Interrompe o fechamento automático e liquida a rodada aberta.
+     */
+    public void encerrar() {
+        ScheduledExecutorService agendadorAtual;
+        synchronized (this) {
+            agendadorAtual = agendador;
+            agendador = null;
+        }
+        if (agendadorAtual != null) {
+            agendadorAtual.shutdown();
+            try {
+                agendadorAtual.awaitTermination(duracaoRodadaMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        fecharRodada();
+    }
+
+    /**
+     * Inclui uma aposta na rodada aberta, removendo as fichas do jogador.
+     *
+     * @param jogador  o jogador que está apostando.
+     * @param cor      a cor apostada.
+     * @param fichas   a quantidade de fichas apostada.
+     * @return a quantidade de fichas aceita, que pode ser menor que a apostada
+     *         se o limite de exposição da mesa reduzir a aposta, ou 0 se a aposta
+     *         for recusada pelo limite de exposição, se o jogador não tiver fichas
+     *         suficientes, se o prêmio do jogador na cor não couber em um int ou
+     *         se a rodada já estiver com a capacidade esgotada.
+     * @throws IllegalArgumentException se a quantidade não for positiva.
+     */
+    public int apostar(Jogador jogador, Cor cor, int fichas) {
+        int indiceCor = cor.ordinal();
+        if (fichas <= 0) {
+            throw new IllegalArgumentException("A quantidade de fichas apostada deve ser positiva.");
+        }
+        fichas = exposicao.reservar(cor, fichas);
+        if (fichas == 0) {
+            return 0;
+        }
+        if (!jogador.removerFichas(fichas)) {
+            exposicao.liberar(cor, fichas);
+            return 0;
+        }
+
+        // a trava de leitura é compartilhada pelas apostas e só impede a troca de rodada.
+        boolean aceita = false;
+        travaRodada.readLock().lock();
+        try {
+            Rodada rodada = rodadaAtual;
+            int vaga = rodada.obterVaga(jogador);
+            if (vaga >= 0 && somarFichas(rodada.fichas, vaga * premioPorCor.length + indiceCor, fichas, premioPorCor[indiceCor])) {
+                rodada.totalPorCor[indiceCor].add(fichas);
+                rodada.qtdApostas.increment();
+                aceita = true;
+            }
+        } finally {
+            travaRodada.readLock().unlock();
+        }
+
+        // o evento é publicado fora da trava, pois o barramento pode esperar por um ouvinte lento.
+        if (aceita) {
+            BarramentoEventos.getPadrao().publicarApostaRealizada(jogador.getIdJogador(), 0, fichas, 1);
+            return fichas;
+        }
+
+        // a rodada está cheia ou o prêmio não caberia: devolve as fichas ao jogador e libera a exposição.
+        jogador.adicionarFichas(fichas);
+        exposicao.liberar(cor, fichas);
+        return 0;
+    }
+
+    /**
+     * Obtém o total de fichas já apostado em uma cor na rodada aberta.
+     * @param cor a cor consultada.
+     * @return o total de fichas apostado na cor.
+     */
+    public long getTotalApostado(Cor cor) {
+        return rodadaAtual.totalPorCor[cor.ordinal()].sum();
+    }
+
+    /**
+     * Obtém quanto a mesa pagará se a cor informada for sorteada, considerando
+     * todas as apostas aceitas e ainda não liquidadas.
+     * @param cor a cor consultada.
+     * @return o total de fichas a pagar se a cor for sorteada.
+     */
+    public long getExposicao(Cor cor) {
+        return exposicao.getExposicao(cor);
+    }
+
+    /**
+     * Obtém o controle de exposição da mesa.
+     * @return o controle de exposição.
+     */
+    public ControleExposicao getControleExposicao() {
+        return exposicao;
+    }
+
+    /**
+     * Fecha a rodada aberta, abre a próxima e liquida todas as apostas da
+     * rodada fechada com um único sorteio. Mesmo que a liquidação falhe, a
+     * exposição da rodada é liberada e ela é limpa para ser reutilizada.
+     * @return o resultado da rodada fechada.
+     */
+    public synchronized ResultadoRodada fecharRodada() {
+        Rodada rodada;
+        travaRodada.writeLock().lock();
+        try {
+            rodada = rodadaAtual;
+            rodadaAtual = rodadaReserva;
+        } finally {
+            travaRodada.writeLock().unlock();
+        }
+
+        ResultadoRodada resultado;
+        try {
+            resultado = liquidar(rodada, MotorApostas.sortearNumero());
+        } finally {
+            for (int cor = 0; cor < premioPorCor.length; cor++) {
+                exposicao.liberar(Cor.doIndice(cor), rodada.totalPorCor[cor].sum());
+            }
+            rodada.limpar(rodadaAtual.idRodada + 1);
+            rodadaReserva = rodada;
+        }
+
+        Consumer<ResultadoRodada> ouvinteAtual = ouvinte;
+        if (ouvinteAtual != null) {
+            ouvinteAtual.accept(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Liquida todas as apostas de uma rodada contra o número sorteado, em uma
+     * única passada pelas vagas. As apostas de cada jogador são registradas no
+     * seu histórico como uma única Aposta, e o diário é sincronizado apenas
+     * depois de registrar a rodada inteira. A falha na liquidação de um
+     * jogador é informada e não impede a liquidação dos demais.
+     */
+    private static ResultadoRodada liquidar(Rodada rodada, int numeroSorteado) {
+        long inicio = System.nanoTime();
+        int qtdCores = premioPorCor.length;
+        int corSorteada = Cor.doNumero(numeroSorteado).ordinal();
+
+        long totalApostado = 0;
+        for (LongAdder total : rodada.totalPorCor) {
+            totalApostado += total.sum();
+        }
+        long totalPago = rodada.totalPorCor[corSorteada].sum() * premioPorCor[corSorteada];
+
+        int qtdJogadores = rodada.qtdJogadores.get();
+        long[] posicoes = new long[qtdJogadores];
+        for (int vaga = 0; vaga < qtdJogadores; vaga++) {
+            Jogador jogador = rodada.jogadores[vaga];
+            int base = vaga * qtdCores;
+
+            ArrayList<Jogo> listaJogos = new ArrayList<Jogo>(qtdCores);
+            for (int cor = 0; cor < qtdCores; cor++) {
+                int fichas = rodada.fichas.get(base + cor);
+                if (fichas > 0) {
+                    listaJogos.add(new Jogo(Cor.doIndice(cor), fichas));
+                }
+            }
+
+            int fichasGanhadoras = rodada.fichas.get(base + corSorteada);
+            int premio = fichasGanhadoras * premioPorCor[corSorteada];
+            ResultadoAposta resultado = new ResultadoAposta(numeroSorteado, Cor.doIndice(corSorteada), totalFichas(rodada.fichas, base, qtdCores), premio, fichasGanhadoras > 0);
+            try {
+                posicoes[vaga] = jogador.registrarLiquidacao(new Aposta(listaJogos, resultado), premio);
+            } catch (RuntimeException e) {
+                posicoes[vaga] = -1;
+                System.err.println("Não foi possível liquidar a aposta do jogador " + jogador.getIdJogador() + " na rodada " + rodada.idRodada + ": " + e);
+            }
+        }
+
+        // do último registro para o primeiro: a primeira sincronização cobre a rodada inteira
+        // e as demais voltam sem esperar, a não ser que algum jogador use outro diário.
+        for (int vaga = qtdJogadores - 1; vaga >= 0; vaga--) {
+            try {
+                rodada.jogadores[vaga].sincronizarDiario(posicoes[vaga]);
+            } catch (RuntimeException e) {
+                System.err.println("Não foi possível sincronizar o diário do jogador " + rodada.jogadores[vaga].getIdJogador() + " na rodada " + rodada.idRodada + ": " + e);
+            }
+        }
+
+        return new ResultadoRodada(rodada.idRodada, numeroSorteado, rodada.qtdApostas.intValue(), totalApostado, totalPago, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Soma fichas às de uma vaga em uma cor, desde que o prêmio da vaga
+     * nessa cor continue cabendo em um int.
+     * @return true se as fichas foram somadas.
+     */
+    private static boolean somarFichas(AtomicIntegerArray fichas, int indice, int qtd, int premio) {
+        int atual;
+        do {
+            atual = fichas.get(indice);
+            if (((long) atual + qtd) * premio > Integer.MAX_VALUE) {
+                return false;
+            }
+        } while (!fichas.compareAndSet(indice, atual, atual + qtd));
+        return true;
+    }
+
+    /**
+     * Soma as fichas de todas as cores de uma vaga.
+     */
+    private static int totalFichas(AtomicIntegerArray fichas, int base, int qtdCores) {
+        int total = 0;
+        for (int cor = 0; cor < qtdCores; cor++) {
+            total += fichas.get(base + cor);
+        }
+        return total;
+    }
+
+}
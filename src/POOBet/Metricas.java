@@ -0,0 +1,155 @@
+package POOBet;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A classe Metricas reúne os contadores e os histogramas de latência das
+ * operações principais do jogo: apostas, sorteio, liquidação, depósitos,
+ * retiradas e conversões. Os registros são baratos o bastante (um
+ * System.nanoTime() e alguns incrementos atômicos) para ficarem sempre
+ * ligados.
+ * <p>
+ * Os valores podem ser consultados por JMX, no domínio "POOBet", depois de
+ * registrarJmx(), ou como texto pelo método relatorio().
+ *
+ * @see HistogramaLatencia
+ */
+public class Metricas implements MetricasMBean {
+
+    /** Criação de uma Aposta sem interação: reserva da exposição, remoção das fichas e liquidação. */
+    public static final HistogramaLatencia APOSTA = new HistogramaLatencia("aposta");
+    /** Parte não interativa de Aposta.criarJogo: reserva da exposição e remoção das fichas. */
+    public static final HistogramaLatencia CRIAR_JOGO = new HistogramaLatencia("criarJogo");
+    /** Sorteio de um número da roleta. */
+    public static final HistogramaLatencia SORTEIO = new HistogramaLatencia("sorteio");
+    /** Liquidação dos jogos de uma aposta contra o número sorteado. */
+    public static final HistogramaLatencia LIQUIDACAO = new HistogramaLatencia("liquidacao");
+    /** Depósito de crédito, incluindo o registro no diário e os depósitos feitos por conversões de fichas. */
+    public static final HistogramaLatencia DEPOSITO = new HistogramaLatencia("deposito");
+    /** Retirada de crédito, incluindo o registro no diário e as retiradas feitas por conversões em fichas. */
+    public static final HistogramaLatencia RETIRADA = new HistogramaLatencia("retirada");
+    /** Conversão de saldo em fichas. */
+    public static final HistogramaLatencia CONVERSAO_FICHAS = new HistogramaLatencia("conversaoFichas");
+    /** Conversão de fichas em saldo. */
+    public static final HistogramaLatencia CONVERSAO_SALDO = new HistogramaLatencia("conversaoSaldo");
+
+    private static final HistogramaLatencia[] HISTOGRAMAS = {
+            APOSTA, CRIAR_JOGO, SORTEIO, LIQUIDACAO, DEPOSITO, RETIRADA, CONVERSAO_FICHAS, CONVERSAO_SALDO
+    };
+
+    static final LongAdder apostasLiquidadas = new LongAdder();
+    static final LongAdder apostasRecusadas = new LongAdder();
+    static final LongAdder fichasApostadas = new LongAdder();
+    static final LongAdder fichasPagas = new LongAdder();
+    static final LongAdder centavosDepositados = new LongAdder();
+    static final LongAdder centavosRetirados = new LongAdder();
+    static final LongAdder fichasCompradas = new LongAdder();
+    static final LongAdder fichasVendidas = new LongAdder();
+    static final LongAdder centavosExpirados = new LongAdder();
+
+    private static final Metricas INSTANCIA = new Metricas();
+    private static boolean registradoJmx;
+
+    private Metricas() {
+    }
+
+    /**
+     * Registra os contadores e os histogramas no servidor de MBeans da
+     * plataforma. Chamadas repetidas não têm efeito.
+     * @throws JMException se algum MBean não puder ser registrado.
+     */
+    public static synchronized void registrarJmx() throws JMException {
+        if (registradoJmx) {
+            return;
+        }
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        servidor.registerMBean(INSTANCIA, new ObjectName("POOBet:type=Metricas"));
+        for (HistogramaLatencia histograma : HISTOGRAMAS) {
+            servidor.registerMBean(histograma, new ObjectName("POOBet:type=Latencia,name=" + histograma.getNome()));
+        }
+        registradoJmx = true;
+    }
+
+    /**
+     * Monta um relatório em texto com todos os contadores e, para cada
+     * operação, a quantidade, a média, os percentis e o máximo, em microssegundos.
+     * @return o relatório.
+     */
+    public static String relatorio() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("apostasLiquidadas ").append(apostasLiquidadas.sum()).append('\n');
+        sb.append("apostasRecusadas ").append(apostasRecusadas.sum()).append('\n');
+        sb.append("fichasApostadas ").append(fichasApostadas.sum()).append('\n');
+        sb.append("fichasPagas ").append(fichasPagas.sum()).append('\n');
+        sb.append("centavosDepositados ").append(centavosDepositados.sum()).append('\n');
+        sb.append("centavosRetirados ").append(centavosRetirados.sum()).append('\n');
+        sb.append("fichasCompradas ").append(fichasCompradas.sum()).append('\n');
+        sb.append("fichasVendidas ").append(fichasVendidas.sum()).append('\n');
+        sb.append("centavosExpirados ").append(centavosExpirados.sum()).append('\n');
+        sb.append('\n');
+        sb.append(String.format(Locale.ROOT, "%-16s %12s %10s %10s %10s %10s %10s %10s%n",
+                "operacao (us)", "qtd", "media", "p50", "p90", "p99", "p99.9", "max"));
+        for (HistogramaLatencia h : HISTOGRAMAS) {
+            sb.append(String.format(Locale.ROOT, "%-16s %12d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    h.getNome(), h.getQtd(), h.getMediaMicros(), h.getP50Micros(), h.getP90Micros(),
+                    h.getP99Micros(), h.getP999Micros(), h.getMaximoMicros()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getApostasLiquidadas() {
+        return apostasLiquidadas.sum();
+    }
+
+    @Override
+    public long getApostasRecusadas() {
+        return apostasRecusadas.sum();
+    }
+
+    @Override
+    public long getFichasApostadas() {
+        return fichasApostadas.sum();
+    }
+
+    @Override
+    public long getFichasPagas() {
+        return fichasPagas.sum();
+    }
+
+    @Override
+    public long getCentavosDepositados() {
+        return centavosDepositados.sum();
+    }
+
+    @Override
+    public long getCentavosRetirados() {
+        return centavosRetirados.sum();
+    }
+
+    @Override
+    public long getFichasCompradas() {
+        return fichasCompradas.sum();
+    }
+
+    @Override
+    public long getFichasVendidas() {
+        return fichasVendidas.sum();
+    }
+
+    @Override
+    public long getCentavosExpirados() {
+        return centavosExpirados.sum();
+    }
+
+    @Override
+    public String getRelatorio() {
+        return relatorio();
+    }
+
+}
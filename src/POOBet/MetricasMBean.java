@@ -0,0 +1,38 @@
+package POOBet;
+
+/**
+ * Interface de gerenciamento (JMX) dos contadores da classe Metricas.
+ */
+public interface MetricasMBean {
+
+    /** @return a quantidade de apostas liquidadas. */
+    long getApostasLiquidadas();
+
+    /** @return a quantidade de apostas ou palpites recusados pelo limite de exposição ou por falta de fichas. */
+    long getApostasRecusadas();
+
+    /** @return o total de fichas apostadas. */
+    long getFichasApostadas();
+
+    /** @return o total de fichas pagas em prêmios. */
+    long getFichasPagas();
+
+    /** @return o total depositado, em centavos. */
+    long getCentavosDepositados();
+
+    /** @return o total retirado, em centavos. */
+    long getCentavosRetirados();
+
+    /** @return o total de fichas compradas com saldo. */
+    long getFichasCompradas();
+
+    /** @return o total de fichas convertidas de volta em saldo. */
+    long getFichasVendidas();
+
+    /** @return o total de saldo expirado, em centavos. */
+    long getCentavosExpirados();
+
+    /** @return o relatório em texto de todos os contadores e latências. */
+    String getRelatorio();
+
+}
@@ -0,0 +1,226 @@
+package POOBet;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A classe ModeloHistoricoApostas é um TableModel que lê as linhas
+ * diretamente do HistoricoApostas do jogador, apenas quando a tabela
+ * precisa exibi-las. Nenhuma linha é copiada: a JTable só pede os valores
+ * das linhas visíveis, então a memória usada não cresce com o histórico.
+ * <p>
+ * O modelo pode filtrar as apostas por cor sorteada, data e prêmio mínimo,
+ * e ordená-las por qualquer coluna. Nesses casos, ele guarda apenas um
+ * vetor com a posição, no histórico, de cada linha exibida.
+ */
+public class ModeloHistoricoApostas extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int COLUNA_ID = 0;
+    public static final int COLUNA_DATA = 1;
+    public static final int COLUNA_NUMERO = 2;
+    public static final int COLUNA_COR = 3;
+    public static final int COLUNA_JOGOS = 4;
+    public static final int COLUNA_FICHAS = 5;
+    public static final int COLUNA_PREMIO = 6;
+
+    private static final String[] CABECALHOS = {"ID da Aposta", "Data", "Número Sorteado", "Cor Sorteada", "Quantidade de Jogos", "Fichas Apostadas", "Prêmio Total (fichas)"};
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final HistoricoApostas historico;
+
+    // quantidade de apostas do histórico considerada pelo modelo.
+    private int qtdApostas;
+
+    // posição no histórico de cada linha exibida, ou null para exibir todas na ordem de inclusão.
+    private int[] linhas;
+
+    private Cor filtroCor;
+    private long filtroInstante = Long.MIN_VALUE;
+    private int filtroPremio = Integer.MIN_VALUE;
+    private int colunaOrdenada = -1;
+    private boolean crescente = true;
+
+    /**
+     * Cria um modelo com todas as apostas do histórico, na ordem de inclusão.
+     * @param historico o histórico de apostas do jogador.
+     */
+    public ModeloHistoricoApostas(HistoricoApostas historico) {
+        this.historico = historico;
+        this.qtdApostas = historico.getQtdApostas();
+    }
+
+    /**
+     * Define o filtro das apostas exibidas e reaplica a ordenação atual.
+     * @param cor              a cor sorteada, ou null para todas as cores.
+     * @param instanteMinimo   o instante mínimo da aposta, em milissegundos desde 1970,
+     *                         ou Long.MIN_VALUE para todas as datas.
+     * @param premioMinimo     o prêmio mínimo, ou Integer.MIN_VALUE para todos os prêmios.
+     */
+    public void filtrar(Cor cor, long instanteMinimo, int premioMinimo) {
+        this.filtroCor = cor;
+        this.filtroInstante = instanteMinimo;
+        this.filtroPremio = premioMinimo;
+        atualizar();
+    }
+
+    /**
+     * Ordena as apostas exibidas por uma coluna. Ordenar novamente pela
+     * mesma coluna inverte a ordem.
+     * @param coluna a coluna usada na ordenação.
+     */
+    public void ordenar(int coluna) {
+        this.crescente = coluna != this.colunaOrdenada || !this.crescente;
+        this.colunaOrdenada = coluna;
+        atualizar();
+    }
+
+    /**
+     * Inclui no modelo as apostas liquidadas depois da sua criação e
+     * reaplica o filtro e a ordenação.
+     */
+    public void atualizar() {
+        this.qtdApostas = historico.getQtdApostas();
+        boolean filtrando = filtroCor != null || filtroInstante != Long.MIN_VALUE || filtroPremio != Integer.MIN_VALUE;
+
+        if (!filtrando && colunaOrdenada < 0) {
+            this.linhas = null;
+        } else {
+            int[] selecionadas = new int[qtdApostas];
+            int qtdSelecionadas = 0;
+            for (int linha = 0; linha < qtdApostas; linha++) {
+                if (aceitar(linha)) {
+                    selecionadas[qtdSelecionadas++] = linha;
+                }
+            }
+            selecionadas = Arrays.copyOf(selecionadas, qtdSelecionadas);
+            if (colunaOrdenada >= 0) {
+                ordenar(selecionadas, new int[qtdSelecionadas], 0, qtdSelecionadas);
+            }
+            this.linhas = selecionadas;
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Verifica se uma aposta do histórico passa pelo filtro atual.
+     */
+    private boolean aceitar(int linha) {
+        return (filtroCor == null || historico.getCorSorteada(linha) == filtroCor)
+                && historico.getInstante(linha) >= filtroInstante
+                && historico.getPremioTotal(linha) >= filtroPremio;
+    }
+
+    /**
+     * Ordena, por merge sort estável, as posições entre inicio e fim pela coluna ordenada.
+     */
+    private void ordenar(int[] posicoes, int[] auxiliar, int inicio, int fim) {
+        if (fim - inicio < 2) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        ordenar(posicoes, auxiliar, inicio, meio);
+        ordenar(posicoes, auxiliar, meio, fim);
+
+        System.arraycopy(posicoes, inicio, auxiliar, inicio, fim - inicio);
+        int esquerda = inicio;
+        int direita = meio;
+        for (int i = inicio; i < fim; i++) {
+            if (direita >= fim || (esquerda < meio && comparar(auxiliar[esquerda], auxiliar[direita]) <= 0)) {
+                posicoes[i] = auxiliar[esquerda++];
+            } else {
+                posicoes[i] = auxiliar[direita++];
+            }
+        }
+    }
+
+    private int comparar(int linhaA, int linhaB) {
+        int comparacao = Long.compare(chave(linhaA), chave(linhaB));
+        return crescente ? comparacao : -comparacao;
+    }
+
+    /**
+     * Obtém o valor de uma aposta do histórico usado para ordená-la pela coluna ordenada.
+     */
+    private long chave(int linha) {
+        switch (colunaOrdenada) {
+            case COLUNA_ID:
+                return historico.getIdAposta(linha);
+            case COLUNA_DATA:
+                return historico.getInstante(linha);
+            case COLUNA_NUMERO:
+                return historico.getNumeroSorteado(linha);
+            case COLUNA_COR:
+                return historico.getCorSorteada(linha).ordinal();
+            case COLUNA_JOGOS:
+                return historico.getQtdJogos(linha);
+            case COLUNA_FICHAS:
+                return historico.getFichasApostadas(linha);
+            default:
+                return historico.getPremioTotal(linha);
+        }
+    }
+
+    /**
+     * Obtém a posição, no histórico, de uma linha exibida pela tabela.
+     * @param linhaTabela a linha da tabela.
+     * @return a posição da aposta no histórico.
+     */
+    public int getLinhaHistorico(int linhaTabela) {
+        return linhas != null ? linhas[linhaTabela] : linhaTabela;
+    }
+
+    @Override
+    public int getRowCount() {
+        return linhas != null ? linhas.length : qtdApostas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return CABECALHOS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return CABECALHOS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        switch (coluna) {
+            case COLUNA_DATA:
+            case COLUNA_COR:
+                return String.class;
+            default:
+                return Integer.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int linhaTabela, int coluna) {
+        int linha = getLinhaHistorico(linhaTabela);
+        switch (coluna) {
+            case COLUNA_ID:
+                return historico.getIdAposta(linha);
+            case COLUNA_DATA: {
+                long instante = historico.getInstante(linha);
+                return instante != 0 ? FORMATO_DATA.format(Instant.ofEpochMilli(instante)) : "-";
+            }
+            case COLUNA_NUMERO:
+                return historico.getNumeroSorteado(linha);
+            case COLUNA_COR:
+                return historico.getCorSorteada(linha).getNome();
+            case COLUNA_JOGOS:
+                return historico.getQtdJogos(linha);
+            case COLUNA_FICHAS:
+                return historico.getFichasApostadas(linha);
+            default:
+                return historico.getPremioTotal(linha);
+        }
+    }
+
+}
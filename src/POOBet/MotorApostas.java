@@ -0,0 +1,75 @@
+package POOBet;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A classe MotorApostas encapsula a liquidação de apostas sem
+ * nenhuma interação com o usuário. Ela recebe os palpites (Jogo)
+ * já criados, realiza o sorteio, calcula o prêmio e credita as
+ * fichas ao jogador, devolvendo um ResultadoAposta.
+ * <p>
+ * Como não abre nenhuma janela, pode ser usada tanto pela interface
+ * gráfica quanto por um servidor ou por testes de carga.
+ */
+public class MotorApostas {
+
+    /**
+     * Realiza o sorteio de um número da roleta, sem exibir mensagens.
+     * @return o número armazenado na posição sorteada da roleta.
+     */
+    public static int sortearNumero() {
+        long inicio = System.nanoTime();
+
+        // sorteia uma posição aleatória na roleta entre 0 e 36, usando o gerador da própria thread.
+        int posicaoSorteada = ThreadLocalRandom.current().nextInt(37);
+        int numero = Aposta.getNumeroNaPosicao(posicaoSorteada);
+        Metricas.SORTEIO.registrarDesde(inicio);
+        BarramentoEventos.getPadrao().publicarResultadoSorteio(numero);
+        return numero;
+    }
+
+    /**
+     * Liquida uma lista de jogos contra um número já sorteado.
+     * Não altera o saldo de nenhum jogador.
+     *
+     * @param listaJogos      os jogos da aposta.
+     * @param numeroSorteado  o número sorteado na roleta.
+     * @return o resultado da aposta.
+     * @throws ArithmeticException se o total de fichas ou de prêmios não couber em um int.
+     */
+    public static ResultadoAposta liquidar(List<Jogo> listaJogos, int numeroSorteado) {
+        long inicio = System.nanoTime();
+        int fichasApostadas = 0;
+        int premioTotal = 0;
+        boolean ganhou = false;
+        for (Jogo jogo : listaJogos) {
+            fichasApostadas = Math.addExact(fichasApostadas, jogo.getQtdFichas());
+            int premio = jogo.calcularPremio(numeroSorteado);
+            premioTotal = Math.addExact(premioTotal, premio);
+            ganhou |= premio > 0;
+        }
+
+        Metricas.apostasLiquidadas.increment();
+        Metricas.fichasApostadas.add(fichasApostadas);
+        Metricas.fichasPagas.add(premioTotal);
+        Metricas.LIQUIDACAO.registrarDesde(inicio);
+
+        return new ResultadoAposta(numeroSorteado, Cor.doNumero(numeroSorteado), fichasApostadas, premioTotal, ganhou);
+    }
+
+    /**
+     * Realiza o sorteio, liquida os jogos e credita o prêmio ao jogador.
+     * As fichas apostadas já devem ter sido removidas do jogador.
+     *
+     * @param jogador     o jogador que receberá o prêmio.
+     * @param listaJogos  os jogos da aposta.
+     * @return o resultado da aposta.
+     */
+    public static ResultadoAposta apostar(Jogador jogador, List<Jogo> listaJogos) {
+        ResultadoAposta resultado = liquidar(listaJogos, sortearNumero());
+        jogador.adicionarFichas(resultado.getPremioTotal());
+        return resultado;
+    }
+
+}
@@ -0,0 +1,22 @@
+package POOBet;
+
+/**
+ * Um ouvinte recebe, em ordem e na sua própria thread, todos os eventos
+ * publicados no BarramentoEventos depois de iniciado.
+ *
+ * @see BarramentoEventos#inscrever(String, OuvinteEventos)
+ */
+public interface OuvinteEventos {
+
+    /**
+     * Recebe um evento. O objeto é reaproveitado pelo barramento, então os
+     * valores que precisarem ser guardados devem ser copiados.
+     *
+     * @param evento     o evento.
+     * @param sequencia  a posição do evento na sequência de todos os eventos publicados.
+     * @param fimDoLote  true se for o último evento disponível no momento; um bom
+     *                   ponto para gravar em disco ou atualizar a tela de uma só vez.
+     */
+    void aoReceber(Evento evento, long sequencia, boolean fimDoLote);
+
+}
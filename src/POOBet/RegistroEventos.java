@@ -0,0 +1,56 @@
+package POOBet;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A classe RegistroEventos é um ouvinte que grava cada evento do
+ * BarramentoEventos como uma linha de texto em um arquivo, para auditoria.
+ * As linhas são acumuladas em um buffer e gravadas no fim de cada lote,
+ * então muitos eventos seguidos custam uma única escrita.
+ *
+ * @see BarramentoEventos
+ */
+public class RegistroEventos implements OuvinteEventos, Closeable {
+
+    private final BufferedWriter saida;
+    private final StringBuilder linha = new StringBuilder(128);
+
+    /**
+     * Abre o arquivo de eventos, acrescentando ao final se ele já existir.
+     * @param arquivo o caminho do arquivo.
+     * @throws IOException se o arquivo não puder ser aberto.
+     */
+    public RegistroEventos(Path arquivo) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        this.saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void aoReceber(Evento evento, long sequencia, boolean fimDoLote) {
+        linha.setLength(0);
+        linha.append(sequencia).append(' ').append(evento).append('\n');
+        try {
+            saida.append(linha);
+            if (fimDoLote) {
+                saida.flush();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível gravar o evento " + sequencia + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+
+}
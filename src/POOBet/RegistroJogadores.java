@@ -0,0 +1,151 @@
+package POOBet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A classe RegistroJogadores mantém todos os jogadores do processo, indexados
+ * pelo ID e, como índices secundários, pelo CPF e pelo apelido. As consultas
+ * não usam trava nenhuma, então podem ser feitas por várias threads em paralelo
+ * enquanto novos jogadores são cadastrados.
+ * <p>
+ * O CPF é indexado pelos seus 11 dígitos em um long, que ocupa bem menos
+ * memória que a String formatada quando há milhões de jogadores.
+ */
+public class RegistroJogadores {
+
+    private final ConcurrentHashMap<Integer, Jogador> porId;
+    private final ConcurrentHashMap<Long, Jogador> porCpf;
+    private final ConcurrentHashMap<String, Jogador> porApelido;
+
+    /**
+     * Cria um registro vazio.
+     */
+    public RegistroJogadores() {
+        this(16);
+    }
+
+    /**
+     * Cria um registro vazio já dimensionado para a quantidade de jogadores
+     * esperada, evitando redimensionamentos dos índices durante a carga.
+     * @param capacidadeInicial a quantidade de jogadores esperada.
+     */
+    public RegistroJogadores(int capacidadeInicial) {
+        this.porId = new ConcurrentHashMap<Integer, Jogador>(capacidadeInicial);
+        this.porCpf = new ConcurrentHashMap<Long, Jogador>(capacidadeInicial);
+        this.porApelido = new ConcurrentHashMap<String, Jogador>(capacidadeInicial);
+    }
+
+    /**
+     * Cadastra um jogador. O cadastro falha, sem alterar o registro, se já
+     * existir um jogador com o mesmo ID, CPF ou apelido.
+     *
+     * @param jogador o jogador a ser cadastrado.
+     * @return true se o jogador foi cadastrado, caso contrário, false.
+     * @throws IllegalArgumentException se o CPF do jogador não tiver 11 dígitos.
+     */
+    public boolean cadastrar(Jogador jogador) {
+        long cpf = normalizarCpf(jogador.getCpf());
+
+        if (porId.putIfAbsent(jogador.getIdJogador(), jogador) != null) {
+            return false;
+        }
+        if (porCpf.putIfAbsent(cpf, jogador) != null) {
+            porId.remove(jogador.getIdJogador(), jogador);
+            return false;
+        }
+        if (porApelido.putIfAbsent(jogador.getApelido(), jogador) != null) {
+            porCpf.remove(cpf, jogador);
+            porId.remove(jogador.getIdJogador(), jogador);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove um jogador do registro e de todos os índices.
+     * @param jogador o jogador a ser removido.
+     * @return true se o jogador estava cadastrado, caso contrário, false.
+     */
+    public boolean remover(Jogador jogador) {
+        if (!porId.remove(jogador.getIdJogador(), jogador)) {
+            return false;
+        }
+        porCpf.remove(normalizarCpf(jogador.getCpf()), jogador);
+        porApelido.remove(jogador.getApelido(), jogador);
+        return true;
+    }
+
+    /**
+     * Busca um jogador pelo ID.
+     * @param idJogador o ID do jogador.
+     * @return o jogador, ou null se não existir.
+     */
+    public Jogador buscarPorId(int idJogador) {
+        return porId.get(idJogador);
+    }
+
+    /**
+     * Busca um jogador pelo CPF, com ou sem pontuação.
+     * @param cpf o CPF do jogador.
+     * @return o jogador, ou null se não existir.
+     */
+    public Jogador buscarPorCpf(String cpf) {
+        try {
+            return porCpf.get(normalizarCpf(cpf));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Busca um jogador pelo apelido.
+     * @param apelido o apelido do jogador.
+     * @return o jogador, ou null se não existir.
+     */
+    public Jogador buscarPorApelido(String apelido) {
+        return porApelido.get(apelido);
+    }
+
+    /**
+     * Obtém a quantidade de jogadores cadastrados.
+     * @return a quantidade de jogadores.
+     */
+    public int getQtdJogadores() {
+        return porId.size();
+    }
+
+    /**
+     * Obtém uma visão, somente leitura, de todos os jogadores cadastrados.
+     * @return os jogadores cadastrados.
+     */
+    public Collection<Jogador> getJogadores() {
+        return Collections.unmodifiableCollection(porId.values());
+    }
+
+    /**
+     * Converte um CPF, com ou sem pontuação, para o número formado pelos seus 11 dígitos.
+     * @param cpf o CPF a ser convertido.
+     * @return os dígitos do CPF como um long.
+     * @throws IllegalArgumentException se o CPF não tiver 11 dígitos.
+     */
+    private static long normalizarCpf(String cpf) {
+        long numero = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                numero = numero * 10 + (c - '0');
+                digitos++;
+            } else if (c != '.' && c != '-') {
+                throw new IllegalArgumentException("CPF inválido: " + cpf);
+            }
+        }
+        if (digitos != 11) {
+            throw new IllegalArgumentException("CPF inválido: " + cpf);
+        }
+        return numero;
+    }
+
+}
@@ -0,0 +1,73 @@
+package POOBet;
+
+/**
+ * A classe ResultadoAposta armazena o resultado da liquidação
+ * de uma aposta: o número e a cor sorteados, o total de fichas
+ * apostadas e o prêmio pago ao jogador.
+ */
+public class ResultadoAposta {
+
+    private final int numeroSorteado;
+    private final Cor corSorteada;
+    private final int fichasApostadas;
+    private final int premioTotal;
+    private final boolean ganhou;
+
+    /**
+     * Construtor da classe ResultadoAposta.
+     *
+     * @param numeroSorteado    O número sorteado na roleta.
+     * @param corSorteada       A cor correspondente ao número sorteado.
+     * @param fichasApostadas   O total de fichas apostadas em todos os jogos.
+     * @param premioTotal       O prêmio total pago, em fichas.
+     * @param ganhou            true se algum jogo da aposta foi ganhador.
+     */
+    public ResultadoAposta(int numeroSorteado, Cor corSorteada, int fichasApostadas, int premioTotal, boolean ganhou) {
+        this.numeroSorteado = numeroSorteado;
+        this.corSorteada = corSorteada;
+        this.fichasApostadas = fichasApostadas;
+        this.premioTotal = premioTotal;
+        this.ganhou = ganhou;
+    }
+
+    /**
+     * Método para obter o número sorteado.
+     * @return o número sorteado.
+     */
+    public int getNumeroSorteado() {
+        return numeroSorteado;
+    }
+
+    /**
+     * Método para obter a cor sorteada.
+     * @return a cor sorteada.
+     */
+    public Cor getCorSorteada() {
+        return corSorteada;
+    }
+
+    /**
+     * Método para obter o total de fichas apostadas.
+     * @return o total de fichas apostadas.
+     */
+    public int getFichasApostadas() {
+        return fichasApostadas;
+    }
+
+    /**
+     * Método para obter o prêmio total.
+     * @return o prêmio total.
+     */
+    public int getPremioTotal() {
+        return premioTotal;
+    }
+
+    /**
+     * Método para verificar se a aposta teve um jogo ganhador.
+     * @return true se a aposta foi ganhadora, caso contrário, false.
+     */
+    public boolean isGanhou() {
+        return ganhou;
+    }
+
+}
@@ -0,0 +1,93 @@
+package POOBet;
+
+/**
+ * A classe ResultadoRodada armazena o resultado de uma rodada de uma
+ * MesaRoleta: o número sorteado e os totais de todas as apostas da rodada.
+ */
+public class ResultadoRodada {
+
+    private final long idRodada;
+    private final int numeroSorteado;
+    private final Cor corSorteada;
+    private final int qtdApostas;
+    private final long totalApostado;
+    private final long totalPago;
+    private final long duracaoLiquidacaoNanos;
+
+    /**
+     * Construtor da classe ResultadoRodada.
+     *
+     * @param idRodada                o número da rodada na mesa.
+     * @param numeroSorteado          o número sorteado na roleta.
+     * @param qtdApostas              a quantidade de apostas recebidas na rodada.
+     * @param totalApostado           o total de fichas apostadas.
+     * @param totalPago               o total de fichas pagas como prêmio.
+     * @param duracaoLiquidacaoNanos  o tempo gasto na liquidação, em nanossegundos.
+     */
+    public ResultadoRodada(long idRodada, int numeroSorteado, int qtdApostas, long totalApostado, long totalPago, long duracaoLiquidacaoNanos) {
+        this.idRodada = idRodada;
+        this.numeroSorteado = numeroSorteado;
+        this.corSorteada = Cor.doNumero(numeroSorteado);
+        this.qtdApostas = qtdApostas;
+        this.totalApostado = totalApostado;
+        this.totalPago = totalPago;
+        this.duracaoLiquidacaoNanos = duracaoLiquidacaoNanos;
+    }
+
+    /**
+     * Método para obter o número da rodada.
+     * @return o número da rodada.
+     */
+    public long getIdRodada() {
+        return idRodada;
+    }
+
+    /**
+     * Método para obter o número sorteado.
+     * @return o número sorteado.
+     */
+    public int getNumeroSorteado() {
+        return numeroSorteado;
+    }
+
+    /**
+     * Método para obter a cor sorteada.
+     * @return a cor sorteada.
+     */
+    public Cor getCorSorteada() {
+        return corSorteada;
+    }
+
+    /**
+     * Método para obter a quantidade de apostas da rodada.
+     * @return a quantidade de apostas.
+     */
+    public int getQtdApostas() {
+        return qtdApostas;
+    }
+
+    /**
+     * Método para obter o total de fichas apostadas na rodada.
+     * @return o total apostado.
+     */
+    public long getTotalApostado() {
+        return totalApostado;
+    }
+
+    /**
+     * Método para obter o total de fichas pagas na rodada.
+     * @return o total pago.
+     */
+    public long getTotalPago() {
+        return totalPago;
+    }
+
+    /**
+     * Método para obter o tempo gasto na liquidação da rodada.
+     * @return o tempo de liquidação, em nanossegundos.
+     */
+    public long getDuracaoLiquidacaoNanos() {
+        return duracaoLiquidacaoNanos;
+    }
+
+}
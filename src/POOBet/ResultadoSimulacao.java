@@ -0,0 +1,153 @@
+package POOBet;
+
+/**
+ * A classe ResultadoSimulacao acumula as estatísticas de uma simulação:
+ * total apostado e pago, soma dos quadrados do resultado líquido de cada
+ * rodada (para o cálculo da variância) e a distribuição das sequências
+ * de derrotas.
+ */
+public class ResultadoSimulacao {
+
+    /** Sequências maiores que este valor são contadas na última posição do histograma. */
+    public static final int MAIOR_SEQUENCIA_HISTOGRAMA = 64;
+
+    private long rodadas;
+    private long totalApostado;
+    private long totalPago;
+    private double somaQuadrados;
+    private int maiorSequenciaDerrotas;
+    private final long[] sequenciasDerrotas = new long[MAIOR_SEQUENCIA_HISTOGRAMA + 1];
+
+    /**
+     * Registra o resultado de uma rodada.
+     *
+     * @param apostado  as fichas apostadas na rodada.
+     * @param pago      as fichas pagas como prêmio na rodada.
+     */
+    void registrarRodada(long apostado, long pago) {
+        long liquido = pago - apostado;
+        rodadas++;
+        totalApostado += apostado;
+        totalPago += pago;
+        somaQuadrados += (double) liquido * liquido;
+    }
+
+    /**
+     * Registra o fim de uma sequência de derrotas consecutivas.
+     *
+     * @param tamanho a quantidade de derrotas da sequência.
+     */
+    void registrarSequenciaDerrotas(int tamanho) {
+        if (tamanho == 0) {
+            return;
+        }
+        sequenciasDerrotas[Math.min(tamanho, MAIOR_SEQUENCIA_HISTOGRAMA)]++;
+        maiorSequenciaDerrotas = Math.max(maiorSequenciaDerrotas, tamanho);
+    }
+
+    /**
+     * Soma a este resultado as estatísticas de outro resultado.
+     *
+     * @param outro o resultado a ser somado.
+     * @return este resultado.
+     */
+    ResultadoSimulacao combinar(ResultadoSimulacao outro) {
+        rodadas += outro.rodadas;
+        totalApostado += outro.totalApostado;
+        totalPago += outro.totalPago;
+        somaQuadrados += outro.somaQuadrados;
+        maiorSequenciaDerrotas = Math.max(maiorSequenciaDerrotas, outro.maiorSequenciaDerrotas);
+        for (int i = 0; i < sequenciasDerrotas.length; i++) {
+            sequenciasDerrotas[i] += outro.sequenciasDerrotas[i];
+        }
+        return this;
+    }
+
+    /**
+     * Obtém o retorno ao jogador (RTP): total pago dividido pelo total apostado.
+     * @return o RTP, entre 0 e 1 para um jogo com vantagem da casa.
+     */
+    public double getRtp() {
+        return totalApostado == 0 ? 0 : (double) totalPago / totalApostado;
+    }
+
+    /**
+     * Obtém a vantagem da casa, ou seja, 1 - RTP.
+     * @return a vantagem da casa.
+     */
+    public double getVantagemCasa() {
+        return 1 - getRtp();
+    }
+
+    /**
+     * Obtém a variância do resultado líquido por rodada, em fichas ao quadrado.
+     * @return a variância por rodada.
+     */
+    public double getVariancia() {
+        if (rodadas == 0) {
+            return 0;
+        }
+        double media = (double) (totalPago - totalApostado) / rodadas;
+        return somaQuadrados / rodadas - media * media;
+    }
+
+    /**
+     * Obtém a quantidade de rodadas simuladas.
+     * @return a quantidade de rodadas.
+     */
+    public long getRodadas() {
+        return rodadas;
+    }
+
+    /**
+     * Obtém o total de fichas apostadas.
+     * @return o total apostado.
+     */
+    public long getTotalApostado() {
+        return totalApostado;
+    }
+
+    /**
+     * Obtém o total de fichas pagas.
+     * @return o total pago.
+     */
+    public long getTotalPago() {
+        return totalPago;
+    }
+
+    /**
+     * Obtém a maior sequência de derrotas consecutivas.
+     * @return a maior sequência de derrotas.
+     */
+    public int getMaiorSequenciaDerrotas() {
+        return maiorSequenciaDerrotas;
+    }
+
+    /**
+     * Obtém o histograma das sequências de derrotas, indexado pelo tamanho da sequência.
+     * @return uma cópia do histograma.
+     */
+    public long[] getSequenciasDerrotas() {
+        return sequenciasDerrotas.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Rodadas: ").append(rodadas).append('\n');
+        sb.append("Total apostado: ").append(totalApostado).append(" fichas\n");
+        sb.append("Total pago: ").append(totalPago).append(" fichas\n");
+        sb.append(String.format("RTP: %.4f%%%n", getRtp() * 100));
+        sb.append(String.format("Vantagem da casa: %.4f%%%n", getVantagemCasa() * 100));
+        sb.append(String.format("Variância por rodada: %.4f%n", getVariancia()));
+        sb.append("Maior sequência de derrotas: ").append(maiorSequenciaDerrotas).append('\n');
+        sb.append("Sequências de derrotas (tamanho: quantidade):\n");
+        for (int i = 1; i < sequenciasDerrotas.length; i++) {
+            if (sequenciasDerrotas[i] > 0) {
+                sb.append("  ").append(i).append(i == MAIOR_SEQUENCIA_HISTOGRAMA ? "+" : "").append(": ").append(sequenciasDerrotas[i]).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+}
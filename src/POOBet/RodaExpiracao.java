@@ -0,0 +1,173 @@
+package POOBet;
+
+import java.util.Arrays;
+
+/**
+ * A classe RodaExpiracao é uma roda de tempo hierárquica (timing wheel) com
+ * resolução de um dia, que guarda pares (ID, dia) e os devolve quando o dia
+ * chega. Agendar e vencer cada par custa O(1), independentemente de quantos
+ * pares estão agendados, e os pares são guardados em vetores de int, sem um
+ * objeto por agendamento.
+ * <p>
+ * São três níveis de 64 posições: o primeiro tem uma posição por dia do bloco
+ * de 64 dias atual, o segundo uma posição por bloco de 64 dias, e o terceiro
+ * uma posição por grupo de 4096 dias. Quando um bloco começa, os pares da sua
+ * posição no nível de cima descem para o nível de baixo. Dias além do alcance
+ * do terceiro nível (cerca de 700 anos) ficam em uma lista à parte.
+ * <p>
+ * A classe não é segura para uso concorrente; a ExpiracaoCredito a protege.
+ *
+ * @see ExpiracaoCredito
+ */
+public class RodaExpiracao {
+
+    /**
+     * Recebe os pares que venceram.
+     */
+    public interface Vencimento {
+        /**
+         * @param id   o ID agendado.
+         * @param dia  o dia para o qual o ID foi agendado.
+         */
+        void vencer(int id, int dia);
+    }
+
+    private static final int BITS_NIVEL = 6;
+    private static final int QTD_POSICOES = 1 << BITS_NIVEL;
+    private static final int MASCARA = QTD_POSICOES - 1;
+    private static final int QTD_NIVEIS = 3;
+    private static final int BITS_ALCANCE = BITS_NIVEL * QTD_NIVEIS;
+
+    // posições [nível * 64 + posição], mais uma posição final para os dias além do alcance.
+    private static final int POSICAO_DISTANTE = QTD_NIVEIS * QTD_POSICOES;
+
+    private final int[][] ids = new int[POSICAO_DISTANTE + 1][];
+    private final int[][] dias = new int[POSICAO_DISTANTE + 1][];
+    private final int[] qtd = new int[POSICAO_DISTANTE + 1];
+
+    private int proximoDia;
+    private long qtdAgendados;
+
+    /**
+     * Cria uma roda vazia.
+     * @param primeiroDia o primeiro dia que ainda não foi vencido.
+     */
+    public RodaExpiracao(int primeiroDia) {
+        this.proximoDia = primeiroDia;
+    }
+
+    /**
+     * Agenda um ID para um dia. Um dia que já passou vence no próximo avanço.
+     * @param id   o ID a ser agendado.
+     * @param dia  o dia em que o ID vence.
+     */
+    public void agendar(int id, int dia) {
+        incluir(posicao(dia), id, dia);
+        qtdAgendados++;
+    }
+
+    /**
+     * Vence, em ordem, todos os dias até o dia informado, inclusive.
+     * @param dia        o último dia a ser vencido.
+     * @param vencimento recebe cada par vencido.
+     * @return a quantidade de pares vencidos.
+     */
+    public long avancarAte(int dia, Vencimento vencimento) {
+        long vencidos = 0;
+        while (proximoDia <= dia) {
+            int d = proximoDia;
+
+            // um novo grupo ou bloco começa: os seus pares descem para os níveis de baixo.
+            if ((d & ((1 << BITS_ALCANCE) - 1)) == 0) {
+                descer(POSICAO_DISTANTE);
+            }
+            if ((d & ((1 << (2 * BITS_NIVEL)) - 1)) == 0) {
+                descer(2 * QTD_POSICOES + ((d >>> (2 * BITS_NIVEL)) & MASCARA));
+            }
+            if ((d & MASCARA) == 0) {
+                descer(QTD_POSICOES + ((d >>> BITS_NIVEL) & MASCARA));
+            }
+
+            int p = d & MASCARA;
+            int n = qtd[p];
+            int[] idsVencidos = ids[p];
+            int[] diasVencidos = dias[p];
+            qtd[p] = 0;
+            ids[p] = null;
+            dias[p] = null;
+            proximoDia = d + 1;
+            for (int i = 0; i < n; i++) {
+                vencimento.vencer(idsVencidos[i], diasVencidos[i]);
+            }
+            vencidos += n;
+            qtdAgendados -= n;
+        }
+        return vencidos;
+    }
+
+    /**
+     * Obtém a quantidade de pares agendados e ainda não vencidos.
+     * @return a quantidade de pares agendados.
+     */
+    public long getQtdAgendados() {
+        return qtdAgendados;
+    }
+
+    /**
+     * Obtém o primeiro dia que ainda não foi vencido.
+     * @return o próximo dia a vencer.
+     */
+    public int getProximoDia() {
+        return proximoDia;
+    }
+
+    /**
+     * Escolhe a posição de um dia: o nível mais baixo cujo bloco atual contém o dia.
+     */
+    private int posicao(int dia) {
+        int d = Math.max(dia, proximoDia);
+        if ((d >>> BITS_NIVEL) == (proximoDia >>> BITS_NIVEL)) {
+            return d & MASCARA;
+        }
+        if ((d >>> (2 * BITS_NIVEL)) == (proximoDia >>> (2 * BITS_NIVEL))) {
+            return QTD_POSICOES + ((d >>> BITS_NIVEL) & MASCARA);
+        }
+        if ((d >>> BITS_ALCANCE) == (proximoDia >>> BITS_ALCANCE)) {
+            return 2 * QTD_POSICOES + ((d >>> (2 * BITS_NIVEL)) & MASCARA);
+        }
+        return POSICAO_DISTANTE;
+    }
+
+    /**
+     * Redistribui os pares de uma posição pelos níveis de baixo.
+     */
+    private void descer(int p) {
+        int n = qtd[p];
+        if (n == 0) {
+            return;
+        }
+        int[] idsDescer = ids[p];
+        int[] diasDescer = dias[p];
+        qtd[p] = 0;
+        ids[p] = null;
+        dias[p] = null;
+        for (int i = 0; i < n; i++) {
+            incluir(posicao(diasDescer[i]), idsDescer[i], diasDescer[i]);
+        }
+    }
+
+    private void incluir(int p, int id, int dia) {
+        int n = qtd[p];
+        if (ids[p] == null) {
+            ids[p] = new int[16];
+            dias[p] = new int[16];
+        } else if (n == ids[p].length) {
+            ids[p] = Arrays.copyOf(ids[p], n * 2);
+            dias[p] = Arrays.copyOf(dias[p], n * 2);
+        }
+        ids[p][n] = id;
+        dias[p][n] = dia;
+        qtd[p] = n + 1;
+    }
+
+}
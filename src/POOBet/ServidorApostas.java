@@ -0,0 +1,482 @@
+package POOBet;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A classe ServidorApostas expõe as operações dos jogadores por HTTP, com
+ * requisições e respostas em JSON, usando o servidor embutido no JDK. As
+ * operações são as mesmas da interface gráfica, mas sem interação com o
+ * usuário, então muitos clientes podem ser atendidos ao mesmo tempo.
+ * <p>
+ * As requisições são atendidas por um conjunto fixo de threads; operações
+ * de um mesmo jogador são serializadas pela trava do próprio jogador, e as
+ * de jogadores diferentes acontecem em paralelo.
+ * <p>
+ * Rotas, todas relativas a /jogadores/{id}:
+ * <ul>
+ *     <li>GET  — saldo e fichas do jogador;</li>
+ *     <li>POST /depositos {"centavos": n} — deposita crédito;</li>
+ *     <li>POST /retiradas {"centavos": n} — retira crédito;</li>
+ *     <li>POST /conversoes/fichas {"centavos": n} — converte saldo em fichas;</li>
+ *     <li>POST /conversoes/saldo {"fichas": n} — converte fichas em saldo;</li>
+ *     <li>POST /apostas {"jogos": [{"tipo": "NUMERO", "alvo": 17, "fichas": 2}, ...]} — aposta e liquida;</li>
+ *     <li>GET  /apostas?inicio=i&amp;limite=n — consulta o histórico de apostas.</li>
+ * </ul>
+ * A rota GET /metricas devolve, em texto, o relatório da classe Metricas.
+ * Em um palpite, o alvo pode ser informado pelo índice ("alvo"), pelos números
+ * cobertos ("numeros": [17, 20]) ou, para cores, pelo nome ("alvo": "Vermelho").
+ * Os valores ("centavos" e "fichas") devem ser positivos e não podem passar de
+ * um limite por requisição; caso contrário, a resposta é 400.
+ */
+public class ServidorApostas {
+
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+    private static final int LIMITE_PADRAO_HISTORICO = 50;
+    private static final int LIMITE_MAXIMO_HISTORICO = 1000;
+    private static final long MAXIMO_CENTAVOS = 1_000_000 * Dinheiro.CENTAVOS_POR_UNIDADE;
+    private static final int MAXIMO_FICHAS = 1_000_000;
+
+    private final RegistroJogadores registro;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+
+    /**
+     * Cria o servidor, sem iniciá-lo.
+     * @param registro    os jogadores atendidos pelo servidor.
+     * @param endereco    o endereço e a porta em que o servidor escuta.
+     * @param qtdThreads  a quantidade de threads que atendem as requisições.
+     * @throws IOException se não for possível abrir a porta.
+     */
+    public ServidorApostas(RegistroJogadores registro, InetSocketAddress endereco, int qtdThreads) throws IOException {
+        this.registro = registro;
+        this.servidor = HttpServer.create(endereco, 1024);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(qtdThreads, r -> {
+            Thread t = new Thread(r, "http-apostas-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.servidor.setExecutor(executor);
+        this.servidor.createContext("/jogadores/", this::tratar);
+        this.servidor.createContext("/metricas", this::tratarMetricas);
+    }
+
+    /**
+     * Inicia o atendimento das requisições.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Para o servidor, esperando as requisições em andamento terminarem.
+     * @param atrasoSegundos o tempo máximo de espera, em segundos.
+     */
+    public void parar(int atrasoSegundos) {
+        servidor.stop(atrasoSegundos);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(atrasoSegundos, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Obtém a porta em que o servidor escuta, útil quando ele é criado na porta 0.
+     * @return a porta do servidor.
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Atende uma requisição, convertendo as exceções do domínio em códigos HTTP:
+     * argumentos inválidos em 400 e limites da casa ou falta de saldo em 409.
+     */
+    private void tratar(HttpExchange troca) throws IOException {
+        int status;
+        String resposta;
+        try {
+            StringBuilder sb = new StringBuilder(256);
+            status = rotear(troca, sb);
+            resposta = sb.toString();
+        } catch (ErroRequisicao e) {
+            status = e.status;
+            resposta = erro(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            resposta = erro(e.getMessage());
+        } catch (IllegalStateException e) {
+            status = 409;
+            resposta = erro(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            resposta = erro("Erro interno: " + e);
+        }
+
+        try {
+            byte[] bytes = resposta.getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            troca.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            troca.close();
+        }
+    }
+
+    /**
+     * Responde com o relatório de métricas em texto.
+     */
+    private void tratarMetricas(HttpExchange troca) throws IOException {
+        try {
+            byte[] bytes = Metricas.relatorio().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            troca.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            troca.close();
+        }
+    }
+
+    /**
+     * Escolhe a operação pela rota e pelo método da requisição e escreve a resposta.
+     * @return o código HTTP da resposta.
+     */
+    private int rotear(HttpExchange troca, StringBuilder sb) throws IOException {
+        // "/jogadores/{id}/recurso/..." vira ["", "jogadores", "{id}", "recurso", ...].
+        String[] partes = troca.getRequestURI().getPath().split("/");
+        if (partes.length < 3) {
+            throw new ErroRequisicao(404, "Rota inexistente.");
+        }
+        Jogador jogador = buscarJogador(partes[2]);
+        String rota = partes.length == 3 ? "" : String.join("/", Arrays.copyOfRange(partes, 3, partes.length));
+        String metodo = troca.getRequestMethod();
+
+        switch (rota) {
+            case "":
+                exigirMetodo(metodo, "GET");
+                escreverJogador(sb, jogador);
+                return 200;
+            case "depositos":
+                exigirMetodo(metodo, "POST");
+                jogador.depositarCredito(lerCentavos(lerCorpo(troca)));
+                escreverJogador(sb, jogador);
+                return 200;
+            case "retiradas":
+                exigirMetodo(metodo, "POST");
+                if (!jogador.retirar(lerCentavos(lerCorpo(troca)))) {
+                    throw new ErroRequisicao(409, "Você não pode retirar um valor maior que seu saldo atual.");
+                }
+                escreverJogador(sb, jogador);
+                return 200;
+            case "conversoes/fichas":
+                exigirMetodo(metodo, "POST");
+                if (jogador.converterSaldoParaFichas(lerCentavos(lerCorpo(troca))) == 0) {
+                    throw new ErroRequisicao(409, "Saldo insuficiente para converter em fichas.");
+                }
+                escreverJogador(sb, jogador);
+                return 200;
+            case "conversoes/saldo":
+                exigirMetodo(metodo, "POST");
+                if (!jogador.converterFichasParaSaldo(lerFichas(lerCorpo(troca)))) {
+                    throw new ErroRequisicao(409, "A quantidade de fichas não pode ser maior que a quantidade disponível.");
+                }
+                escreverJogador(sb, jogador);
+                return 200;
+            case "apostas":
+                if (metodo.equals("GET")) {
+                    escreverHistorico(sb, jogador.getHistorico(), lerParametros(troca.getRequestURI().getRawQuery()));
+                    return 200;
+                }
+                exigirMetodo(metodo, "POST");
+                Aposta aposta = jogador.criarAposta(lerJogos(lerCorpo(troca)));
+                escreverAposta(sb, aposta, jogador);
+                return 201;
+            default:
+                throw new ErroRequisicao(404, "Rota inexistente.");
+        }
+    }
+
+    private Jogador buscarJogador(String id) {
+        Jogador jogador = null;
+        try {
+            jogador = registro.buscarPorId(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            // um ID que não é número simplesmente não existe.
+        }
+        if (jogador == null) {
+            throw new ErroRequisicao(404, "Jogador " + id + " não encontrado.");
+        }
+        return jogador;
+    }
+
+    private static void exigirMetodo(String metodo, String esperado) {
+        if (!metodo.equals(esperado)) {
+            throw new ErroRequisicao(405, "Método " + metodo + " não permitido nesta rota.");
+        }
+    }
+
+    /**
+     * Lê o corpo da requisição como um objeto JSON.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> lerCorpo(HttpExchange troca) throws IOException {
+        byte[] bytes;
+        try (InputStream in = troca.getRequestBody()) {
+            bytes = in.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+        }
+        if (bytes.length > TAMANHO_MAXIMO_CORPO) {
+            throw new ErroRequisicao(413, "O corpo da requisição é grande demais.");
+        }
+        Object corpo = Json.ler(new String(bytes, StandardCharsets.UTF_8));
+        if (!(corpo instanceof Map)) {
+            throw new IllegalArgumentException("O corpo da requisição deve ser um objeto JSON.");
+        }
+        return (Map<String, Object>) corpo;
+    }
+
+    /**
+     * Converte o vetor "jogos" do corpo da requisição em palpites.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Jogo> lerJogos(Map<String, Object> corpo) {
+        Object jogos = corpo.get("jogos");
+        if (!(jogos instanceof List) || ((List<Object>) jogos).isEmpty()) {
+            throw new IllegalArgumentException("A aposta deve ter ao menos um palpite em \"jogos\".");
+        }
+        List<Jogo> palpites = new ArrayList<Jogo>();
+        for (Object item : (List<Object>) jogos) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException("Cada palpite deve ser um objeto JSON.");
+            }
+            Map<String, Object> jogo = (Map<String, Object>) item;
+            TipoAposta tipo = lerTipo(jogo.get("tipo"));
+            palpites.add(new Jogo(tipo, lerAlvo(tipo, jogo), lerFichas(jogo)));
+        }
+        return palpites;
+    }
+
+    private static TipoAposta lerTipo(Object tipo) {
+        if (tipo instanceof String) {
+            for (TipoAposta t : TipoAposta.values()) {
+                if (t.name().equalsIgnoreCase((String) tipo)) {
+                    return t;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Tipo de aposta inválido: " + tipo + ".");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int lerAlvo(TipoAposta tipo, Map<String, Object> jogo) {
+        Object alvo = jogo.get("alvo");
+        Object numeros = jogo.get("numeros");
+        if (alvo instanceof String && tipo == TipoAposta.COR) {
+            Cor cor = Cor.doNome((String) alvo);
+            if (cor == null) {
+                throw new IllegalArgumentException("Cor inválida: " + alvo + ".");
+            }
+            return cor.ordinal();
+        }
+        if (alvo == null && numeros instanceof List) {
+            List<Object> lista = (List<Object>) numeros;
+            int[] cobertos = new int[lista.size()];
+            for (int i = 0; i < cobertos.length; i++) {
+                cobertos[i] = paraInt(lista.get(i), "numeros");
+            }
+            int encontrado = tipo.procurarAlvo(cobertos);
+            if (encontrado < 0) {
+                throw new IllegalArgumentException("Nenhum palpite do tipo " + tipo.getNome() + " cobre os números " + lista + ".");
+            }
+            return encontrado;
+        }
+        return paraInt(alvo, "alvo");
+    }
+
+    private static long lerLong(Map<String, Object> objeto, String campo) {
+        Object valor = objeto.get(campo);
+        if (!(valor instanceof Long)) {
+            throw new IllegalArgumentException("O campo \"" + campo + "\" deve ser um número inteiro.");
+        }
+        return (Long) valor;
+    }
+
+    /**
+     * Lê o campo "centavos", que deve ser positivo e no máximo MAXIMO_CENTAVOS.
+     */
+    private static long lerCentavos(Map<String, Object> objeto) {
+        long centavos = lerLong(objeto, "centavos");
+        if (centavos <= 0 || centavos > MAXIMO_CENTAVOS) {
+            throw new ErroRequisicao(400, "O campo \"centavos\" deve estar entre 1 e " + MAXIMO_CENTAVOS + ".");
+        }
+        return centavos;
+    }
+
+    /**
+     * Lê o campo "fichas", que deve ser positivo e no máximo MAXIMO_FICHAS.
+     */
+    private static int lerFichas(Map<String, Object> objeto) {
+        int fichas = paraInt(objeto.get("fichas"), "fichas");
+        if (fichas <= 0 || fichas > MAXIMO_FICHAS) {
+            throw new ErroRequisicao(400, "O campo \"fichas\" deve estar entre 1 e " + MAXIMO_FICHAS + ".");
+        }
+        return fichas;
+    }
+
+    private static int paraInt(Object valor, String campo) {
+        if (!(valor instanceof Long) || (Long) valor != ((Long) valor).intValue()) {
+            throw new IllegalArgumentException("O campo \"" + campo + "\" deve ser um número inteiro.");
+        }
+        return ((Long) valor).intValue();
+    }
+
+    private static Map<String, String> lerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<String, String>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static int lerParametro(Map<String, String> parametros, String nome, int padrao) {
+        String valor = parametros.get(nome);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("O parâmetro \"" + nome + "\" deve ser um número inteiro.");
+        }
+    }
+
+    private static void escreverJogador(StringBuilder sb, Jogador jogador) {
+        sb.append("{\"id\":").append(jogador.getIdJogador());
+        sb.append(",\"apelido\":");
+        Json.escreverTexto(sb, jogador.getApelido());
+        sb.append(",\"saldoCentavos\":").append(jogador.getSaldoCentavos());
+        sb.append(",\"fichas\":").append(jogador.getQtdFicha()).append('}');
+    }
+
+    private static void escreverAposta(StringBuilder sb, Aposta aposta, Jogador jogador) {
+        sb.append("{\"idAposta\":").append(aposta.getIdAposta());
+        sb.append(",\"numeroSorteado\":").append(aposta.getNumeroSorteado());
+        sb.append(",\"corSorteada\":");
+        Json.escreverTexto(sb, aposta.getCorSorteada().getNome());
+        sb.append(",\"premioTotal\":").append(aposta.getPremioTotal());
+        sb.append(",\"fichas\":").append(jogador.getQtdFicha());
+        sb.append(",\"jogos\":[");
+        List<Jogo> jogos = aposta.getListaJogos();
+        for (int i = 0; i < jogos.size(); i++) {
+            Jogo jogo = jogos.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            escreverJogo(sb, jogo.getTipo(), jogo.getAlvo(), jogo.getQtdFichas());
+            sb.setLength(sb.length() - 1);
+            sb.append(",\"premio\":").append(jogo.calcularPremio(aposta.getNumeroSorteado())).append('}');
+        }
+        sb.append("]}");
+    }
+
+    /**
+     * Escreve uma página do histórico, lendo as colunas do histórico
+     * diretamente, sem reconstruir objetos Aposta. Sem o parâmetro
+     * "inicio", a página traz as apostas mais recentes.
+     */
+    private static void escreverHistorico(StringBuilder sb, HistoricoApostas historico, Map<String, String> parametros) {
+        int total = historico.getQtdApostas();
+        int limite = lerParametro(parametros, "limite", LIMITE_PADRAO_HISTORICO);
+        if (limite < 0 || limite > LIMITE_MAXIMO_HISTORICO) {
+            throw new IllegalArgumentException("O parâmetro \"limite\" deve estar entre 0 e " + LIMITE_MAXIMO_HISTORICO + ".");
+        }
+        int inicio = lerParametro(parametros, "inicio", Math.max(0, total - limite));
+        if (inicio < 0) {
+            throw new IllegalArgumentException("O parâmetro \"inicio\" não pode ser negativo.");
+        }
+        int fim = (int) Math.min(total, (long) inicio + limite);
+
+        sb.append("{\"total\":").append(total).append(",\"inicio\":").append(inicio).append(",\"apostas\":[");
+        for (int linha = inicio; linha < fim; linha++) {
+            if (linha > inicio) {
+                sb.append(',');
+            }
+            sb.append("{\"idAposta\":").append(historico.getIdAposta(linha));
+            sb.append(",\"instante\":").append(historico.getInstante(linha));
+            sb.append(",\"numeroSorteado\":").append(historico.getNumeroSorteado(linha));
+            sb.append(",\"corSorteada\":");
+            Json.escreverTexto(sb, historico.getCorSorteada(linha).getNome());
+            sb.append(",\"fichasApostadas\":").append(historico.getFichasApostadas(linha));
+            sb.append(",\"premioTotal\":").append(historico.getPremioTotal(linha));
+            sb.append(",\"jogos\":[");
+            int qtdJogos = historico.getQtdJogos(linha);
+            for (int jogo = 0; jogo < qtdJogos; jogo++) {
+                if (jogo > 0) {
+                    sb.append(',');
+                }
+                int palpite = historico.getPalpiteJogo(linha, jogo);
+                escreverJogo(sb, TipoAposta.doPalpite(palpite), TipoAposta.getAlvoDoPalpite(palpite), historico.getFichasJogo(linha, jogo));
+            }
+            sb.append("]}");
+        }
+        sb.append("]}");
+    }
+
+    private static void escreverJogo(StringBuilder sb, TipoAposta tipo, int alvo, int fichas) {
+        sb.append("{\"tipo\":\"").append(tipo.name()).append('"');
+        sb.append(",\"alvo\":").append(alvo);
+        sb.append(",\"descricao\":");
+        Json.escreverTexto(sb, tipo.descrever(alvo));
+        sb.append(",\"fichas\":").append(fichas).append('}');
+    }
+
+    private static String erro(String mensagem) {
+        return Json.escreverTexto(new StringBuilder("{\"erro\":"), String.valueOf(mensagem)).append('}').toString();
+    }
+
+    /**
+     * Erro na requisição que já carrega o código HTTP da resposta.
+     */
+    private static class ErroRequisicao extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ErroRequisicao(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package POOBet;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * A classe Simulador executa simulações de Monte Carlo da roleta, sem
+ * interface gráfica, para validar a tabela de prêmios e o retorno ao
+ * jogador (RTP) antes de alterar as regras do jogo.
+ * <p>
+ * As rodadas são divididas entre os núcleos com fork/join. Cada tarefa
+ * usa o seu próprio gerador (SplittableRandom) e a sua própria instância
+ * da estratégia, sem nenhum estado compartilhado entre as threads.
+ * As sequências de derrotas que atravessam a divisão entre duas tarefas
+ * são contadas separadamente em cada uma delas.
+ */
+public class Simulador {
+
+    // quantidade de rodadas a partir da qual uma tarefa não é mais dividida.
+    private static final long RODADAS_POR_TAREFA = 1 << 20;
+
+    // prêmio pago por ficha para cada cor, indexado pelo ordinal da Cor.
+    private static final int[] premioPorCor = new int[Cor.getQtdCores()];
+
+    static {
+        for (int i = 0; i < premioPorCor.length; i++) {
+            premioPorCor[i] = Cor.doIndice(i).getPremio();
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Cria um simulador que usa o pool comum do fork/join.
+     */
+    public Simulador() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria um simulador que usa o pool informado.
+     * @param pool o pool onde as tarefas da simulação serão executadas.
+     */
+    public Simulador(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Simula uma quantidade de rodadas com a estratégia informada.
+     *
+     * @param rodadas     a quantidade de rodadas a simular.
+     * @param estrategia  fornece uma nova instância da estratégia para cada tarefa.
+     * @param semente     a semente do gerador, para simulações reproduzíveis.
+     * @return as estatísticas da simulação.
+     */
+    public ResultadoSimulacao simular(long rodadas, Supplier<EstrategiaAposta> estrategia, long semente) {
+        return pool.invoke(new TarefaSimulacao(rodadas, estrategia, new SplittableRandom(semente)));
+    }
+
+    /**
+     * Executa uma simulação de exemplo com aposta fixa no vermelho e com Martingale.
+     * @param args quantidade de rodadas e semente (opcionais).
+     */
+    public static void main(String[] args) {
+        long rodadas = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        long semente = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        Simulador simulador = new Simulador();
+
+        long inicio = System.nanoTime();
+        ResultadoSimulacao fixa = simulador.simular(rodadas, () -> EstrategiaAposta.apostaFixa(Cor.VERMELHO, 1), semente);
+        System.out.println("== Aposta fixa no Vermelho ==");
+        System.out.println(fixa);
+        System.out.println("Tempo: " + (System.nanoTime() - inicio) / 1_000_000 + " ms\n");
+
+        inicio = System.nanoTime();
+        ResultadoSimulacao martingale = simulador.simular(rodadas, () -> EstrategiaAposta.martingale(Cor.VERMELHO, 1, 1024), semente);
+        System.out.println("== Martingale no Vermelho ==");
+        System.out.println(martingale);
+        System.out.println("Tempo: " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Tarefa do fork/join que simula um intervalo de rodadas,
+     * dividindo-o ao meio enquanto for maior que RODADAS_POR_TAREFA.
+     */
+    private static class TarefaSimulacao extends RecursiveTask<ResultadoSimulacao> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long rodadas;
+        private final Supplier<EstrategiaAposta> estrategia;
+        private final SplittableRandom rd;
+
+        TarefaSimulacao(long rodadas, Supplier<EstrategiaAposta> estrategia, SplittableRandom rd) {
+            this.rodadas = rodadas;
+            this.estrategia = estrategia;
+            this.rd = rd;
+        }
+
+        @Override
+        protected ResultadoSimulacao compute() {
+            if (rodadas <= RODADAS_POR_TAREFA) {
+                return simularIntervalo();
+            }
+
+            long metade = rodadas / 2;
+            TarefaSimulacao esquerda = new TarefaSimulacao(metade, estrategia, rd.split());
+            TarefaSimulacao direita = new TarefaSimulacao(rodadas - metade, estrategia, rd);
+            esquerda.fork();
+            ResultadoSimulacao resultado = direita.compute();
+            return resultado.combinar(esquerda.join());
+        }
+
+        private ResultadoSimulacao simularIntervalo() {
+            ResultadoSimulacao resultado = new ResultadoSimulacao();
+            EstrategiaAposta estrategiaTarefa = estrategia.get();
+            int[] fichasPorCor = new int[premioPorCor.length];
+            int qtdPosicoes = Aposta.getQtdPosicoes();
+            boolean ganhouUltima = false;
+            int sequenciaDerrotas = 0;
+
+            for (long i = 0; i < rodadas; i++) {
+                Arrays.fill(fichasPorCor, 0);
+                estrategiaTarefa.definirAposta(fichasPorCor, ganhouUltima);
+
+                long apostado = 0;
+                for (int fichas : fichasPorCor) {
+                    apostado += fichas;
+                }
+
+                int cor = Cor.doNumero(Aposta.getNumeroNaPosicao(rd.nextInt(qtdPosicoes))).ordinal();
+                long pago = (long) fichasPorCor[cor] * premioPorCor[cor];
+                resultado.registrarRodada(apostado, pago);
+
+                ganhouUltima = pago > 0;
+                if (ganhouUltima) {
+                    resultado.registrarSequenciaDerrotas(sequenciaDerrotas);
+                    sequenciaDerrotas = 0;
+                } else {
+                    sequenciaDerrotas++;
+                }
+            }
+            resultado.registrarSequenciaDerrotas(sequenciaDerrotas);
+
+            return resultado;
+        }
+    }
+
+}
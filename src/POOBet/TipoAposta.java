@@ -0,0 +1,417 @@
+package POOBet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * O enum TipoAposta define os tipos de palpite aceitos na roleta europeia.
+ * Cada palpite (Jogo) é formado por um tipo e um alvo, um número inteiro
+ * cujo significado depende do tipo: o índice da cor, o próprio número, a
+ * posição da dúzia, ou a posição do grupo de números na lista do tipo.
+ * <p>
+ * Ao carregar a classe, todos os palpites possíveis recebem um índice único
+ * e é montada uma matriz com o prêmio de cada palpite para cada número da
+ * roleta. Assim, liquidar qualquer palpite, simples ou de vários números, é
+ * uma única consulta à matriz.
+ * <p>
+ * Os prêmios incluem a própria ficha apostada: um palpite em um número paga
+ * 36 fichas por ficha (35 para 1).
+ */
+public enum TipoAposta {
+
+    /** Aposta em uma cor; o alvo é o índice da Cor. */
+    COR("Cor", Cor.getQtdCores(), 0) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return Cor.doNumero(numero).ordinal() == alvo;
+        }
+
+        @Override
+        public int getPremio(int alvo) {
+            return Cor.doIndice(alvo).getPremio();
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return Cor.doIndice(alvo).getNome();
+        }
+    },
+
+    /** Aposta em um único número (pleno); o alvo é o número, entre 0 e 36. */
+    NUMERO("Número", 37, 36) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero == alvo;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return "Número " + alvo;
+        }
+    },
+
+    /** Aposta em dois números vizinhos na mesa (divisão); o alvo é a posição em {@link Grupos#DIVISOES}. */
+    DIVISAO("Divisão", Grupos.DIVISOES.length, 18) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return Grupos.contem(Grupos.DIVISOES[alvo], numero);
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return "Divisão " + Grupos.descrever(Grupos.DIVISOES[alvo]);
+        }
+    },
+
+    /** Aposta em uma linha de três números (rua), incluindo 0-1-2 e 0-2-3; o alvo é a posição em {@link Grupos#RUAS}. */
+    RUA("Rua", Grupos.RUAS.length, 12) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return Grupos.contem(Grupos.RUAS[alvo], numero);
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return "Rua " + Grupos.descrever(Grupos.RUAS[alvo]);
+        }
+    },
+
+    /** Aposta em quatro números (quadra), incluindo 0-1-2-3; o alvo é a posição em {@link Grupos#QUADRAS}. */
+    QUADRA("Quadra", Grupos.QUADRAS.length, 9) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return Grupos.contem(Grupos.QUADRAS[alvo], numero);
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return "Quadra " + Grupos.descrever(Grupos.QUADRAS[alvo]);
+        }
+    },
+
+    /** Aposta em duas ruas vizinhas (linha); o alvo é a primeira rua, entre 0 (1 a 6) e 10 (31 a 36). */
+    LINHA("Linha", 11, 6) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero > 0 && (numero - 1) / 3 - alvo >= 0 && (numero - 1) / 3 - alvo <= 1;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return "Linha " + (alvo * 3 + 1) + " a " + (alvo * 3 + 6);
+        }
+    },
+
+    /** Aposta em uma dúzia; o alvo é 0 (1 a 12), 1 (13 a 24) ou 2 (25 a 36). */
+    DUZIA("Dúzia", 3, 3) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero > 0 && (numero - 1) / 12 == alvo;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return (alvo + 1) + "ª dúzia (" + (alvo * 12 + 1) + " a " + (alvo * 12 + 12) + ")";
+        }
+    },
+
+    /** Aposta em uma coluna da mesa; o alvo é 0 (1, 4, 7...), 1 (2, 5, 8...) ou 2 (3, 6, 9...). */
+    COLUNA("Coluna", 3, 3) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero > 0 && (numero - 1) % 3 == alvo;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return (alvo + 1) + "ª coluna";
+        }
+    },
+
+    /** Aposta em par ou ímpar; o alvo é 0 (par) ou 1 (ímpar). O zero não é par nem ímpar. */
+    PAR_IMPAR("Par/Ímpar", 2, 2) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero > 0 && numero % 2 == alvo;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return alvo == 0 ? "Par" : "Ímpar";
+        }
+    },
+
+    /** Aposta em números baixos ou altos; o alvo é 0 (1 a 18) ou 1 (19 a 36). */
+    ALTO_BAIXO("Alto/Baixo", 2, 2) {
+        @Override
+        boolean cobre(int alvo, int numero) {
+            return numero > 0 && (numero - 1) / 18 == alvo;
+        }
+
+        @Override
+        public String descrever(int alvo) {
+            return alvo == 0 ? "Baixo (1 a 18)" : "Alto (19 a 36)";
+        }
+    };
+
+    /**
+     * Os grupos de números das apostas em divisão, rua e quadra, na ordem
+     * dos seus alvos. Os números de 1 a 36 ficam na mesa em linhas de três,
+     * com o 1 na primeira coluna e o 0 acima da primeira linha.
+     */
+    static class Grupos {
+
+        static final int[][] DIVISOES;
+        static final int[][] RUAS;
+        static final int[][] QUADRAS;
+
+        static {
+            List<int[]> divisoes = new ArrayList<int[]>();
+            for (int n = 1; n <= 3; n++) {
+                divisoes.add(new int[] {0, n});
+            }
+            for (int n = 1; n <= 36; n++) {
+                if ((n - 1) % 3 != 2) {
+                    divisoes.add(new int[] {n, n + 1});
+                }
+                if (n <= 33) {
+                    divisoes.add(new int[] {n, n + 3});
+                }
+            }
+            DIVISOES = divisoes.toArray(new int[0][]);
+
+            List<int[]> ruas = new ArrayList<int[]>();
+            ruas.add(new int[] {0, 1, 2});
+            ruas.add(new int[] {0, 2, 3});
+            for (int n = 1; n <= 34; n += 3) {
+                ruas.add(new int[] {n, n + 1, n + 2});
+            }
+            RUAS = ruas.toArray(new int[0][]);
+
+            List<int[]> quadras = new ArrayList<int[]>();
+            quadras.add(new int[] {0, 1, 2, 3});
+            for (int n = 1; n <= 32; n++) {
+                if ((n - 1) % 3 != 2) {
+                    quadras.add(new int[] {n, n + 1, n + 3, n + 4});
+                }
+            }
+            QUADRAS = quadras.toArray(new int[0][]);
+        }
+
+        static boolean contem(int[] grupo, int numero) {
+            for (int n : grupo) {
+                if (n == numero) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static String descrever(int[] grupo) {
+            StringBuilder sb = new StringBuilder();
+            for (int n : grupo) {
+                if (sb.length() > 0) {
+                    sb.append('-');
+                }
+                sb.append(n);
+            }
+            return sb.toString();
+        }
+    }
+
+    // cópia de values(), que cria um novo vetor a cada chamada.
+    private static final TipoAposta[] VALORES = values();
+
+    private static final int QTD_NUMEROS = 37;
+
+    // quantidade de palpites diferentes, somando os alvos de todos os tipos.
+    private static final int QTD_PALPITES;
+
+    // prêmio por ficha de cada palpite para cada número, indexado por
+    // numero * QTD_PALPITES + índice do palpite; 0 quando o palpite perde.
+    private static final byte[] MATRIZ_PREMIOS;
+
+    static {
+        int qtdPalpites = 0;
+        for (TipoAposta tipo : VALORES) {
+            tipo.primeiroIndice = qtdPalpites;
+            qtdPalpites += tipo.qtdAlvos;
+        }
+        QTD_PALPITES = qtdPalpites;
+
+        MATRIZ_PREMIOS = new byte[QTD_NUMEROS * QTD_PALPITES];
+        for (TipoAposta tipo : VALORES) {
+            for (int alvo = 0; alvo < tipo.qtdAlvos; alvo++) {
+                for (int numero = 0; numero < QTD_NUMEROS; numero++) {
+                    if (tipo.cobre(alvo, numero)) {
+                        MATRIZ_PREMIOS[numero * QTD_PALPITES + tipo.primeiroIndice + alvo] = (byte) tipo.getPremio(alvo);
+                    }
+                }
+            }
+        }
+    }
+
+    private final String nome;
+    private final int qtdAlvos;
+    private final int premio;
+    private int primeiroIndice;
+
+    TipoAposta(String nome, int qtdAlvos, int premio) {
+        this.nome = nome;
+        this.qtdAlvos = qtdAlvos;
+        this.premio = premio;
+    }
+
+    /**
+     * Verifica se um palpite deste tipo cobre um número. Usado apenas para
+     * montar a matriz de prêmios.
+     */
+    abstract boolean cobre(int alvo, int numero);
+
+    /**
+     * Descreve o alvo de um palpite para exibição ao jogador.
+     * @param alvo o alvo do palpite.
+     * @return a descrição do alvo.
+     */
+    public abstract String descrever(int alvo);
+
+    /**
+     * Obtém o prêmio pago por ficha a um palpite ganhador, incluindo a própria ficha.
+     * @param alvo o alvo do palpite.
+     * @return o prêmio por ficha.
+     */
+    public int getPremio(int alvo) {
+        return premio;
+    }
+
+    /**
+     * Verifica se um palpite deste tipo ganha com o número sorteado.
+     * @param alvo    o alvo do palpite.
+     * @param numero  o número sorteado.
+     * @return true se o palpite ganhou.
+     */
+    public boolean ganha(int alvo, int numero) {
+        return getPremio(numero, getIndice(alvo)) != 0;
+    }
+
+    /**
+     * Obtém o índice único de um palpite deste tipo, entre todos os palpites
+     * possíveis, usado para consultar a matriz de prêmios.
+     * @param alvo o alvo do palpite.
+     * @return o índice do palpite.
+     */
+    public int getIndice(int alvo) {
+        return primeiroIndice + alvo;
+    }
+
+    /**
+     * Obtém o nome do tipo de palpite, como exibido ao jogador.
+     * @return o nome do tipo.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém a quantidade de alvos diferentes deste tipo. Os alvos válidos
+     * vão de 0 até essa quantidade menos um.
+     * @return a quantidade de alvos.
+     */
+    public int getQtdAlvos() {
+        return qtdAlvos;
+    }
+
+    /**
+     * Verifica se um alvo é válido para este tipo de palpite.
+     * @param alvo o alvo a verificar.
+     * @return true se o alvo for válido.
+     */
+    public boolean isAlvoValido(int alvo) {
+        return alvo >= 0 && alvo < qtdAlvos;
+    }
+
+    /**
+     * Procura o alvo deste tipo que cobre exatamente os números informados,
+     * em qualquer ordem. Por exemplo, a divisão "17-20" ou a quadra "1-2-4-5".
+     * @param numeros os números cobertos pelo palpite.
+     * @return o alvo correspondente, ou -1 se nenhum alvo cobrir exatamente esses números.
+     */
+    public int procurarAlvo(int... numeros) {
+        int[] procurados = numeros.clone();
+        Arrays.sort(procurados);
+        for (int alvo = 0; alvo < qtdAlvos; alvo++) {
+            int qtdCobertos = 0;
+            for (int numero = 0; numero < QTD_NUMEROS; numero++) {
+                if (cobre(alvo, numero)) {
+                    if (qtdCobertos >= procurados.length || procurados[qtdCobertos] != numero) {
+                        qtdCobertos = -1;
+                        break;
+                    }
+                    qtdCobertos++;
+                }
+            }
+            if (qtdCobertos == procurados.length) {
+                return alvo;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Obtém o prêmio por ficha de um palpite para um número sorteado, com uma
+     * única consulta à matriz de prêmios.
+     * @param numero  o número sorteado, entre 0 e 36.
+     * @param indice  o índice do palpite (ver {@link #getIndice(int)}).
+     * @return o prêmio por ficha, ou 0 se o palpite perdeu.
+     */
+    public static int getPremio(int numero, int indice) {
+        return MATRIZ_PREMIOS[numero * QTD_PALPITES + indice];
+    }
+
+    /**
+     * Obtém o tipo de um palpite a partir do seu índice único.
+     * @param indice o índice do palpite (ver {@link #getIndice(int)}).
+     * @return o tipo do palpite.
+     */
+    public static TipoAposta doPalpite(int indice) {
+        for (int i = VALORES.length - 1; i > 0; i--) {
+            if (indice >= VALORES[i].primeiroIndice) {
+                return VALORES[i];
+            }
+        }
+        return VALORES[0];
+    }
+
+    /**
+     * Obtém o alvo de um palpite a partir do seu índice único.
+     * @param indice o índice do palpite (ver {@link #getIndice(int)}).
+     * @return o alvo do palpite.
+     */
+    public static int getAlvoDoPalpite(int indice) {
+        return indice - doPalpite(indice).primeiroIndice;
+    }
+
+    /**
+     * Obtém a quantidade de palpites diferentes, somando os alvos de todos os tipos.
+     * @return a quantidade de palpites.
+     */
+    public static int getQtdPalpites() {
+        return QTD_PALPITES;
+    }
+
+    /**
+     * Obtém o tipo de palpite a partir do seu índice (ordinal).
+     * @param indice o índice do tipo.
+     * @return o tipo correspondente.
+     */
+    public static TipoAposta doIndice(int indice) {
+        return VALORES[indice];
+    }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+
+}
@@ -0,0 +1,21 @@
+package POOBet;
+
+/**
+ * O enum TipoEvento lista os eventos de domínio publicados no BarramentoEventos.
+ *
+ * @see Evento
+ */
+public enum TipoEvento {
+
+    /** Uma aposta foi feita e as suas fichas foram removidas do jogador. */
+    APOSTA_REALIZADA,
+    /** A roleta foi girada e um número foi sorteado. */
+    RESULTADO_SORTEIO,
+    /** Uma aposta foi liquidada e incluída no histórico do jogador. */
+    APOSTA_LIQUIDADA,
+    /** Crédito foi adicionado à conta de um jogador. */
+    CREDITO_ADICIONADO,
+    /** Saldo foi convertido em fichas, ou fichas em saldo. */
+    FICHAS_CONVERTIDAS
+
+}